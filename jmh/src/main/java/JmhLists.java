@@ -0,0 +1,65 @@
+import java.util.ListIterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * The lists, as the JMH benchmarks in package bench see them (see
+ * bench.Lists).  Lists are made by the factories in SimpleListBench.IMPLS,
+ * so the JMH benchmarks and the quick benchmarks in src compare the same
+ * implementations.
+ */
+public class JmhLists implements bench.Lists {
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  public Iterable<Object> newList(String impl) {
+    for (SimpleListBench.Impl candidate : SimpleListBench.IMPLS) {
+      if (candidate.name.equals(impl)) {
+        return candidate.factory.get();
+      } // if
+    } // for
+    throw new IllegalArgumentException("unknown list: " + impl);
+  } // newList(String)
+
+  @SuppressWarnings("unchecked")
+  public ListIterator<Object> listIterator(Iterable<Object> lst) {
+    return ((SimpleList<Object>) lst).listIterator();
+  } // listIterator(Iterable<Object>)
+
+  public EndOps newDeque(String impl) {
+    switch (impl) {
+      case "ConcurrentCDLL":
+        ConcurrentCDLL<Object> cdll = new ConcurrentCDLL<Object>();
+        return new EndOps() {
+          public void offer(boolean first, Object val) {
+            if (first) {
+              cdll.offerFirst(val);
+            } else {
+              cdll.offerLast(val);
+            } // if/else
+          } // offer(boolean, Object)
+
+          public Object poll(boolean first) {
+            return first ? cdll.pollFirst() : cdll.pollLast();
+          } // poll(boolean)
+        };
+      case "ConcurrentLinkedDeque":
+        ConcurrentLinkedDeque<Object> cld = new ConcurrentLinkedDeque<Object>();
+        return new EndOps() {
+          public void offer(boolean first, Object val) {
+            if (first) {
+              cld.offerFirst(val);
+            } else {
+              cld.offerLast(val);
+            } // if/else
+          } // offer(boolean, Object)
+
+          public Object poll(boolean first) {
+            return first ? cld.pollFirst() : cld.pollLast();
+          } // poll(boolean)
+        };
+      default:
+        throw new IllegalArgumentException("unknown deque: " + impl);
+    } // switch
+  } // newDeque(String)
+} // class JmhLists
@@ -0,0 +1,94 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of ConcurrentCDLL against java.util.concurrent's
+ * ConcurrentLinkedDeque with several threads working on one deque.
+ *
+ * Every thread is both a producer and a consumer: each invocation adds a
+ * value and then removes one, so the deque stays about the same size.
+ * In the "queue" workload, values are added at the back and removed from
+ * the front; in the "bothEnds" workload, each thread alternates between
+ * the two ends.  The score is in add-and-remove pairs per second, over
+ * all threads.
+ *
+ * Usage: java -jar target/benchmarks.jar ConcurrentDequeBenchmark -t 8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+public class ConcurrentDequeBenchmark {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The number of values in the deque when we start.
+   */
+  static final int PREFILL = 1000;
+
+  // +------------+--------------------------------------------------
+  // | Parameters |
+  // +------------+
+
+  @Param({"ConcurrentCDLL", "ConcurrentLinkedDeque"})
+  public String impl;
+
+  @Param({"queue", "bothEnds"})
+  public String workload;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  Lists.EndOps deque;
+
+  boolean bothEnds;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.deque = Lists.get().newDeque(this.impl);
+    this.bothEnds = this.workload.equals("bothEnds");
+    for (int i = 0; i < PREFILL; i++) {
+      this.deque.offer(false, i);
+    } // for
+  } // setUp()
+
+  /**
+   * What each thread adds, and which end it uses next.
+   */
+  @State(Scope.Thread)
+  public static class Worker {
+    Object val = Integer.valueOf(System.identityHashCode(this));
+    long n;
+  } // class Worker
+
+  // +------------+--------------------------------------------------
+  // | Benchmarks |
+  // +------------+
+
+  @Benchmark
+  public Object offerPoll(Worker worker) {
+    boolean first = this.bothEnds && ((worker.n++ & 1) == 0);
+    this.deque.offer(first, worker.val);
+    return this.deque.poll(!first);
+  } // offerPoll(Worker)
+} // class ConcurrentDequeBenchmark
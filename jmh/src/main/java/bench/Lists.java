@@ -0,0 +1,59 @@
+package bench;
+
+import java.util.ListIterator;
+
+/**
+ * What the benchmarks need from the lists.
+ *
+ * The lists are in the default package, which classes in a package
+ * cannot name, and JMH does not allow benchmarks in the default package.
+ * So the one implementation, JmhLists, is in the default package, and
+ * we load it by name, once.
+ */
+public interface Lists {
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Create an empty list of the implementation with the given name, as
+   * in SimpleListBench.IMPLS.  The list is a SimpleList.
+   */
+  Iterable<Object> newList(String impl);
+
+  /**
+   * Get a list iterator at the front of a list made by newList.
+   */
+  ListIterator<Object> listIterator(Iterable<Object> lst);
+
+  /**
+   * Create an empty concurrent deque ("ConcurrentCDLL" or
+   * "ConcurrentLinkedDeque").
+   */
+  EndOps newDeque(String impl);
+
+  /**
+   * Get the implementation.
+   */
+  static Lists get() {
+    try {
+      return (Lists) Class.forName("JmhLists").getDeclaredConstructor()
+          .newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("cannot load JmhLists", e);
+    } // try/catch
+  } // get()
+
+  // +---------------+-----------------------------------------------
+  // | Inner Classes |
+  // +---------------+
+
+  /**
+   * The end operations of a concurrent deque.
+   */
+  interface EndOps {
+    void offer(boolean first, Object val);
+
+    Object poll(boolean first);
+  } // interface EndOps
+} // interface Lists
@@ -0,0 +1,239 @@
+package bench;
+
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput and allocation benchmarks for SimpleLists, over every
+ * implementation, list size, and element type.
+ *
+ * Each invocation processes the whole list, so the score is in passes
+ * per second; multiply by size for operations per second.  Run with
+ * -prof gc for allocation: gc.alloc.rate.norm is bytes per pass.
+ *
+ * The traversals consume each value through a Blackhole.  The
+ * benchmarks that remove values get a freshly filled list before every
+ * invocation (outside the measured time); the others share one list per
+ * trial.  churn leaves the list as it found it.  The GC profiler counts
+ * what that refilling allocates too, so for removeForward and
+ * randomWalkRemove gc.alloc.rate.norm includes the nodes of a fresh
+ * list.
+ *
+ * Usage: java -jar target/benchmarks.jar SimpleListBenchmark -prof gc
+ *   [-p impl=SimpleCDLL,ArrayList] [-p size=1000] [-p type=Integer]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SimpleListBenchmark {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The seed for all the random walks, as in SimpleListBench.SEED.
+   */
+  static final long SEED = 207;
+
+  // +------------+--------------------------------------------------
+  // | Parameters |
+  // +------------+
+
+  /**
+   * The implementation, by its name in SimpleListBench.IMPLS.
+   */
+  @Param({"SimpleDLL", "SimpleCDLL", "SimpleCDLL+pool", "SimpleCDLL+lazy",
+      "SimpleUCDLL", "SimpleICDLL", "LinkedList", "ArrayList"})
+  public String impl;
+
+  @Param({"1000", "10000"})
+  public int size;
+
+  @Param({"Integer", "String"})
+  public String type;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  Lists lists;
+
+  /**
+   * The values to store, made up front so that making them is not
+   * counted as allocation.
+   */
+  Object[] values;
+
+  /**
+   * A list holding the values.
+   */
+  Iterable<Object> filled;
+
+  // +-------+-------------------------------------------------------
+  // | Setup |
+  // +-------+
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    this.lists = Lists.get();
+    this.values = new Object[this.size];
+    for (int i = 0; i < this.size; i++) {
+      if (this.type.equals("Integer")) {
+        this.values[i] = Integer.valueOf(i + 1024);
+      } else {
+        this.values[i] = "value" + i;
+      } // if/else
+    } // for
+    this.filled = fill();
+  } // setUpTrial()
+
+  /**
+   * A list for a benchmark that removes values.  Filling it costs as
+   * much as a pass, so this is no more than the usual per-invocation
+   * overhead of JMH.
+   */
+  @State(Scope.Thread)
+  public static class Fresh {
+    Iterable<Object> lst;
+
+    @Setup(Level.Invocation)
+    public void setUp(SimpleListBenchmark bench) {
+      this.lst = bench.fill();
+    } // setUp(SimpleListBenchmark)
+  } // class Fresh
+
+  // +------------+--------------------------------------------------
+  // | Benchmarks |
+  // +------------+
+
+  /**
+   * Add every value to an empty list using one iterator.
+   */
+  @Benchmark
+  public Iterable<Object> add() {
+    return fill();
+  } // add()
+
+  /**
+   * Visit every value, moving forward.
+   */
+  @Benchmark
+  public void forward(Blackhole bh) {
+    Iterator<Object> it = this.filled.iterator();
+    while (it.hasNext()) {
+      bh.consume(it.next());
+    } // while
+  } // forward(Blackhole)
+
+  /**
+   * Visit every value with the iterator's forEachRemaining, which lists
+   * may implement without going through next.
+   */
+  @Benchmark
+  public void forEachRemaining(Blackhole bh) {
+    this.filled.iterator().forEachRemaining(bh::consume);
+  } // forEachRemaining(Blackhole)
+
+  /**
+   * Advance to the end of the list and visit every value moving backward,
+   * as in SimpleListExpt.removeBackwardExpt.
+   */
+  @Benchmark
+  public void backward(Blackhole bh) {
+    ListIterator<Object> lit = this.lists.listIterator(this.filled);
+    while (lit.hasNext()) {
+      lit.next();
+    } // while
+    while (lit.hasPrevious()) {
+      bh.consume(lit.previous());
+    } // while
+  } // backward(Blackhole)
+
+  /**
+   * Remove alternating elements, moving forward, as in
+   * SimpleListExpt.expt2.
+   */
+  @Benchmark
+  public Iterable<Object> removeForward(Fresh fresh) {
+    long ops = 0;
+    ListIterator<Object> lit = this.lists.listIterator(fresh.lst);
+    while (lit.hasNext()) {
+      lit.next();
+      if ((ops++ % 2) == 0) {
+        lit.remove();
+      } // if
+    } // while
+    return fresh.lst;
+  } // removeForward(Fresh)
+
+  /**
+   * Remove half of the elements, each after a five-step random walk,
+   * as in SimpleListExpt.randomWalkRemove.
+   */
+  @Benchmark
+  public Iterable<Object> randomWalkRemove(Fresh fresh) {
+    Random walk = new Random(SEED);
+    ListIterator<Object> lit = this.lists.listIterator(fresh.lst);
+    for (int i = this.size / 2; i > 0; i--) {
+      for (int j = 0; j < 5; j++) {
+        if (!lit.hasNext() || (lit.hasPrevious() && walk.nextBoolean())) {
+          lit.previous();
+        } else {
+          lit.next();
+        } // if/else
+      } // for j
+      lit.remove();
+    } // for i
+    return fresh.lst;
+  } // randomWalkRemove(Fresh)
+
+  /**
+   * Replace every element by removing it and adding it back in its
+   * place.  The list keeps its size, so a list that recycles nodes should
+   * not allocate at all.
+   */
+  @Benchmark
+  public Iterable<Object> churn() {
+    ListIterator<Object> lit = this.lists.listIterator(this.filled);
+    while (lit.hasNext()) {
+      Object val = lit.next();
+      lit.remove();
+      lit.add(val);
+    } // while
+    return this.filled;
+  } // churn()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Make a list of the implementation under test holding the values.
+   */
+  Iterable<Object> fill() {
+    Iterable<Object> lst = this.lists.newList(this.impl);
+    ListIterator<Object> lit = this.lists.listIterator(lst);
+    for (Object val : this.values) {
+      lit.add(val);
+    } // for
+    return lst;
+  } // fill()
+} // class SimpleListBenchmark
@@ -0,0 +1,173 @@
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of CDLLBlockingDeque against java.util.concurrent's
+ * LinkedBlockingDeque with many producers and consumers on one bounded
+ * deque.
+ *
+ * Half the threads put values at the back and half take them from the
+ * front (the "queue" workload), or each producer and consumer picks an
+ * end in turn (the "both ends" workload).  The deque holds CAPACITY
+ * values, so with many threads most of them spend their time blocked.
+ * We move a fixed number of values through the deque and report values
+ * moved per second.
+ *
+ * When the runtime has virtual threads (Java 21 and later) every
+ * producer and consumer is a virtual thread, so thousands of them are
+ * cheap; otherwise we fall back to platform threads, and say so.
+ *
+ * Usage: java BlockingDequeBench [threads ...]
+ */
+public class BlockingDequeBench {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The most values in the deque.
+   */
+  static final int CAPACITY = 1024;
+
+  /**
+   * The number of values moved through the deque in each measurement.
+   */
+  static final int VALUES = 1 << 21;
+
+  /**
+   * The number of unmeasured runs before we measure.
+   */
+  static final int WARMUP_ROUNDS = 2;
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    int[] threadCounts = {2, 16, 256, 4096};
+    if (args.length > 0) {
+      threadCounts = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        threadCounts[i] = Integer.parseInt(args[i]);
+      } // for
+    } // if
+
+    pen.println(virtualThreads()
+        ? "Using virtual threads"
+        : "Virtual threads unavailable; using platform threads");
+    pen.printf("%-20s %-10s %8s %16s%n", "Deque", "Workload", "Threads",
+        "values/s");
+    for (int threads : threadCounts) {
+      for (boolean bothEnds : new boolean[] {false, true}) {
+        String workload = bothEnds ? "both ends" : "queue";
+        pen.printf("%-20s %-10s %8d %16.0f%n", "CDLLBlockingDeque",
+            workload, threads, measure(threads, bothEnds,
+                () -> new CDLLBlockingDeque<Object>(CAPACITY)));
+        pen.printf("%-20s %-10s %8d %16.0f%n", "LinkedBlockingDeque",
+            workload, threads, measure(threads, bothEnds,
+                () -> new LinkedBlockingDeque<Object>(CAPACITY)));
+      } // for bothEnds
+    } // for threads
+  } // main(String[])
+
+  // +---------+-----------------------------------------------------
+  // | Harness |
+  // +---------+
+
+  /**
+   * Warm up, then run once more and return the values moved per second.
+   */
+  static double measure(int threads, boolean bothEnds,
+      Supplier<BlockingDeque<Object>> factory) throws Exception {
+    for (int round = 0; round < WARMUP_ROUNDS; round++) {
+      run(threads, bothEnds, factory.get());
+    } // for
+    long start = System.nanoTime();
+    run(threads, bothEnds, factory.get());
+    return VALUES * 1e9 / (System.nanoTime() - start);
+  } // measure(int, boolean, Supplier<BlockingDeque<Object>>)
+
+  /**
+   * Move VALUES values through the deque with threads / 2 producers and
+   * as many consumers (at least one of each).
+   */
+  static void run(int threads, boolean bothEnds, BlockingDeque<Object> deque)
+      throws Exception {
+    int pairs = Math.max(1, threads / 2);
+    List<Future<?>> futures = new ArrayList<Future<?>>();
+    ExecutorService exec = newExecutor();
+    try {
+      for (int p = 0; p < pairs; p++) {
+        // Spread the values as evenly as we can over the pairs
+        int n = VALUES / pairs + ((p < VALUES % pairs) ? 1 : 0);
+        Object val = Integer.valueOf(p);
+        futures.add(exec.submit(() -> {
+          for (int i = 0; i < n; i++) {
+            if (bothEnds && (i & 1) == 0) {
+              deque.putFirst(val);
+            } else {
+              deque.putLast(val);
+            } // if/else
+          } // for
+          return null;
+        }));
+        futures.add(exec.submit(() -> {
+          for (int i = 0; i < n; i++) {
+            if (bothEnds && (i & 1) == 1) {
+              deque.takeLast();
+            } else {
+              deque.takeFirst();
+            } // if/else
+          } // for
+          return null;
+        }));
+      } // for
+      for (Future<?> future : futures) {
+        future.get();
+      } // for
+    } finally {
+      exec.shutdownNow();
+    } // try/finally
+  } // run(int, boolean, BlockingDeque<Object>)
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Determine whether the runtime has virtual threads.
+   */
+  static boolean virtualThreads() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    } // try/catch
+  } // virtualThreads()
+
+  /**
+   * Create an executor that runs each task in a thread of its own: a
+   * virtual thread if we can (found reflectively, so that we still
+   * compile on older runtimes), and otherwise a platform thread.
+   */
+  static ExecutorService newExecutor() throws Exception {
+    if (virtualThreads()) {
+      return (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } // if
+    return Executors.newCachedThreadPool((r) -> {
+      Thread thread = new Thread(r);
+      thread.setDaemon(true);
+      return thread;
+    });
+  } // newExecutor()
+} // class BlockingDequeBench
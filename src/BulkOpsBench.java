@@ -0,0 +1,165 @@
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Compares the bulk operations of SimpleCDLL (removeIf, replaceAll and
+ * its iterators' addAll) with the iterator loops they replace, as in
+ * SimpleListExpt.removeForwardExpt and SimpleListExpt.addStrings.  The standard lists are included for
+ * reference, using their own bulk operations.
+ *
+ * We use the harness in SimpleListBench, so the results are in the same
+ * units: operations (values visited) per second and bytes per operation.
+ *
+ * Usage: java BulkOpsBench [size ...]
+ */
+public class BulkOpsBench {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The values we remove: about half of them.
+   */
+  static final Predicate<Object> PRED = (val) -> (val.hashCode() & 1) == 0;
+
+  /**
+   * How we replace values.  Replacing a value with itself keeps the
+   * benchmark from allocating.
+   */
+  static final UnaryOperator<Object> OP = (val) -> val;
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    int[] sizes = SimpleListBench.DEFAULT_SIZES;
+    if (args.length > 0) {
+      sizes = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        sizes[i] = Integer.parseInt(args[i]);
+      } // for
+    } // if
+
+    List<SimpleListBench.Impl> impls = new ArrayList<SimpleListBench.Impl>();
+    impls.add(new SimpleListBench.Impl("SimpleCDLL",
+        () -> new SimpleCDLL<Object>()));
+    impls.add(new SimpleListBench.Impl("SimpleCDLL+pool",
+        () -> new SimpleCDLL<Object>(SimpleListBench.POOL_CAPACITY)));
+    impls.add(new SimpleListBench.Impl("LinkedList",
+        () -> new JavaList<Object>(new LinkedList<Object>())));
+    impls.add(new SimpleListBench.Impl("ArrayList",
+        () -> new JavaList<Object>(new ArrayList<Object>())));
+
+    List<SimpleListBench.Benchmark> benches =
+        new ArrayList<SimpleListBench.Benchmark>();
+    benches.add(new SimpleListBench.Benchmark("addAll/loop", false,
+        BulkOpsBench::addAllLoop));
+    benches.add(new SimpleListBench.Benchmark("addAll/bulk", false,
+        BulkOpsBench::addAllBulk));
+    benches.add(new SimpleListBench.Benchmark("removeIf/loop", true,
+        BulkOpsBench::removeIfLoop));
+    benches.add(new SimpleListBench.Benchmark("removeIf/bulk", true,
+        BulkOpsBench::removeIfBulk));
+    benches.add(new SimpleListBench.Benchmark("replaceAll/loop", true,
+        BulkOpsBench::replaceAllLoop));
+    benches.add(new SimpleListBench.Benchmark("replaceAll/bulk", true,
+        BulkOpsBench::replaceAllBulk));
+
+    SimpleListBench.printHeader(pen);
+    for (SimpleListBench.Benchmark bench : benches) {
+      for (int size : sizes) {
+        Object[] values = SimpleListBench.values("Integer", size);
+        for (SimpleListBench.Impl impl : impls) {
+          SimpleListBench.printResult(pen, bench.name, impl.name, "Integer",
+              size, SimpleListBench.measure(impl.factory, bench, values));
+        } // for impl
+      } // for size
+    } // for bench
+  } // main(String[])
+
+  // +------------+--------------------------------------------------
+  // | Benchmarks |
+  // +------------+
+
+  /**
+   * Add every value to an empty list with an iterator's add.
+   */
+  static long addAllLoop(SimpleList<Object> lst, Object[] values) {
+    ListIterator<Object> lit = lst.listIterator();
+    for (Object val : values) {
+      lit.add(val);
+    } // for
+    return values.length;
+  } // addAllLoop(SimpleList<Object>, Object[])
+
+  /**
+   * Add every value to an empty list at once, with the addAll of a
+   * SimpleCDLL's iterator or of a standard list.
+   */
+  static long addAllBulk(SimpleList<Object> lst, Object[] values) {
+    if (lst instanceof SimpleCDLL) {
+      SimpleCDLL<Object> cdll = (SimpleCDLL<Object>) lst;
+      cdll.addAllAt(cdll.listIterator(), Arrays.asList(values));
+    } else {
+      ((JavaList<Object>) lst).list.addAll(Arrays.asList(values));
+    } // if/else
+    return values.length;
+  } // addAllBulk(SimpleList<Object>, Object[])
+
+  /**
+   * Remove the values that satisfy PRED with next and remove.
+   */
+  static long removeIfLoop(SimpleList<Object> lst, Object[] values) {
+    Iterator<Object> it = lst.iterator();
+    while (it.hasNext()) {
+      if (PRED.test(it.next())) {
+        it.remove();
+      } // if
+    } // while
+    return values.length;
+  } // removeIfLoop(SimpleList<Object>, Object[])
+
+  /**
+   * Remove the values that satisfy PRED with the list's removeIf.
+   */
+  static long removeIfBulk(SimpleList<Object> lst, Object[] values) {
+    if (lst instanceof SimpleCDLL) {
+      ((SimpleCDLL<Object>) lst).removeIf(PRED);
+    } else {
+      ((JavaList<Object>) lst).list.removeIf(PRED);
+    } // if/else
+    return values.length;
+  } // removeIfBulk(SimpleList<Object>, Object[])
+
+  /**
+   * Replace every value with next and set.
+   */
+  static long replaceAllLoop(SimpleList<Object> lst, Object[] values) {
+    ListIterator<Object> lit = lst.listIterator();
+    while (lit.hasNext()) {
+      lit.set(OP.apply(lit.next()));
+    } // while
+    return values.length;
+  } // replaceAllLoop(SimpleList<Object>, Object[])
+
+  /**
+   * Replace every value with the list's replaceAll.
+   */
+  static long replaceAllBulk(SimpleList<Object> lst, Object[] values) {
+    if (lst instanceof SimpleCDLL) {
+      ((SimpleCDLL<Object>) lst).replaceAll(OP);
+    } else {
+      ((JavaList<Object>) lst).list.replaceAll(OP);
+    } // if/else
+    return values.length;
+  } // replaceAllBulk(SimpleList<Object>, Object[])
+} // class BulkOpsBench
@@ -0,0 +1,658 @@
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A blocking deque, optionally bounded, kept in a SimpleCDLL.
+ *
+ * The values live in a SimpleCDLL, whose dummy node gives us both ends
+ * in constant time: we add with addFirst and addLast and remove by the
+ * handles of the first and last values.  The list pools removed nodes,
+ * so a deque that stays about the same size stops allocating nodes.
+ *
+ * One ReentrantLock guards the list, with one condition for waiting
+ * until the deque is not empty and one for waiting until it is not full.
+ * We use no synchronized blocks, so threads (including virtual threads)
+ * that block here park rather than hold on to their carrier threads.
+ *
+ * Iterators are over a snapshot of the deque taken when they are
+ * created (see SimpleCDLL.snapshot), so they never throw
+ * ConcurrentModificationException.  Their remove removes the same value
+ * (the first one identical to it) if it is still there.
+ *
+ * Null values are not permitted.
+ */
+public class CDLLBlockingDeque<T> extends AbstractQueue<T>
+    implements BlockingDeque<T> {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The most removed nodes the list keeps for reuse.
+   */
+  static final int POOL_CAPACITY = 1024;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The values, from first to last.
+   */
+  final SimpleCDLL<T> list;
+
+  /**
+   * The most values the deque may hold.
+   */
+  final int capacity;
+
+  /**
+   * Guards the list.
+   */
+  final ReentrantLock lock;
+
+  /**
+   * Signalled when a value is added, and when space is freed.
+   */
+  final Condition notEmpty;
+  final Condition notFull;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create an empty deque with no bound on its size.
+   */
+  public CDLLBlockingDeque() {
+    this(Integer.MAX_VALUE);
+  } // CDLLBlockingDeque()
+
+  /**
+   * Create an empty deque that holds at most capacity values.
+   *
+   * @throws IllegalArgumentException if capacity is not positive.
+   */
+  public CDLLBlockingDeque(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    } // if
+    this.list = new SimpleCDLL<T>(Math.min(capacity, POOL_CAPACITY));
+    this.capacity = capacity;
+    this.lock = new ReentrantLock();
+    this.notEmpty = this.lock.newCondition();
+    this.notFull = this.lock.newCondition();
+  } // CDLLBlockingDeque(int)
+
+  // +----------------+----------------------------------------------
+  // | Adding Values |
+  // +----------------+
+
+  public boolean offerFirst(T val) {
+    Objects.requireNonNull(val);
+    this.lock.lock();
+    try {
+      return linkFirst(val);
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // offerFirst(T)
+
+  public boolean offerLast(T val) {
+    Objects.requireNonNull(val);
+    this.lock.lock();
+    try {
+      return linkLast(val);
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // offerLast(T)
+
+  public void addFirst(T val) {
+    if (!offerFirst(val)) {
+      throw new IllegalStateException("Deque full");
+    } // if
+  } // addFirst(T)
+
+  public void addLast(T val) {
+    if (!offerLast(val)) {
+      throw new IllegalStateException("Deque full");
+    } // if
+  } // addLast(T)
+
+  public void putFirst(T val) throws InterruptedException {
+    Objects.requireNonNull(val);
+    this.lock.lockInterruptibly();
+    try {
+      while (!linkFirst(val)) {
+        this.notFull.await();
+      } // while
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // putFirst(T)
+
+  public void putLast(T val) throws InterruptedException {
+    Objects.requireNonNull(val);
+    this.lock.lockInterruptibly();
+    try {
+      while (!linkLast(val)) {
+        this.notFull.await();
+      } // while
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // putLast(T)
+
+  public boolean offerFirst(T val, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    Objects.requireNonNull(val);
+    long nanos = unit.toNanos(timeout);
+    this.lock.lockInterruptibly();
+    try {
+      while (!linkFirst(val)) {
+        if (nanos <= 0) {
+          return false;
+        } // if
+        nanos = this.notFull.awaitNanos(nanos);
+      } // while
+      return true;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // offerFirst(T, long, TimeUnit)
+
+  public boolean offerLast(T val, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    Objects.requireNonNull(val);
+    long nanos = unit.toNanos(timeout);
+    this.lock.lockInterruptibly();
+    try {
+      while (!linkLast(val)) {
+        if (nanos <= 0) {
+          return false;
+        } // if
+        nanos = this.notFull.awaitNanos(nanos);
+      } // while
+      return true;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // offerLast(T, long, TimeUnit)
+
+  // +------------------+--------------------------------------------
+  // | Removing Values |
+  // +------------------+
+
+  public T pollFirst() {
+    this.lock.lock();
+    try {
+      return unlinkFirst();
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // pollFirst()
+
+  public T pollLast() {
+    this.lock.lock();
+    try {
+      return unlinkLast();
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // pollLast()
+
+  public T removeFirst() {
+    T val = pollFirst();
+    if (val == null) {
+      throw new NoSuchElementException();
+    } // if
+    return val;
+  } // removeFirst()
+
+  public T removeLast() {
+    T val = pollLast();
+    if (val == null) {
+      throw new NoSuchElementException();
+    } // if
+    return val;
+  } // removeLast()
+
+  public T takeFirst() throws InterruptedException {
+    this.lock.lockInterruptibly();
+    try {
+      T val;
+      while ((val = unlinkFirst()) == null) {
+        this.notEmpty.await();
+      } // while
+      return val;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // takeFirst()
+
+  public T takeLast() throws InterruptedException {
+    this.lock.lockInterruptibly();
+    try {
+      T val;
+      while ((val = unlinkLast()) == null) {
+        this.notEmpty.await();
+      } // while
+      return val;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // takeLast()
+
+  public T pollFirst(long timeout, TimeUnit unit)
+      throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    this.lock.lockInterruptibly();
+    try {
+      T val;
+      while ((val = unlinkFirst()) == null) {
+        if (nanos <= 0) {
+          return null;
+        } // if
+        nanos = this.notEmpty.awaitNanos(nanos);
+      } // while
+      return val;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // pollFirst(long, TimeUnit)
+
+  public T pollLast(long timeout, TimeUnit unit)
+      throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    this.lock.lockInterruptibly();
+    try {
+      T val;
+      while ((val = unlinkLast()) == null) {
+        if (nanos <= 0) {
+          return null;
+        } // if
+        nanos = this.notEmpty.awaitNanos(nanos);
+      } // while
+      return val;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // pollLast(long, TimeUnit)
+
+  public boolean removeFirstOccurrence(Object o) {
+    if (o == null) {
+      return false;
+    } // if
+    this.lock.lock();
+    try {
+      Iterator<T> it = this.list.iterator();
+      while (it.hasNext()) {
+        if (o.equals(it.next())) {
+          it.remove();
+          this.notFull.signal();
+          return true;
+        } // if
+      } // while
+      return false;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // removeFirstOccurrence(Object)
+
+  public boolean removeLastOccurrence(Object o) {
+    if (o == null) {
+      return false;
+    } // if
+    this.lock.lock();
+    try {
+      ListIterator<T> it = this.list.listIterator(this.list.size);
+      while (it.hasPrevious()) {
+        if (o.equals(it.previous())) {
+          it.remove();
+          this.notFull.signal();
+          return true;
+        } // if
+      } // while
+      return false;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // removeLastOccurrence(Object)
+
+  public int drainTo(Collection<? super T> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  } // drainTo(Collection<? super T>)
+
+  public int drainTo(Collection<? super T> c, int maxElements) {
+    Objects.requireNonNull(c);
+    if (c == this) {
+      throw new IllegalArgumentException("cannot drain a deque into itself");
+    } // if
+    if (maxElements <= 0) {
+      return 0;
+    } // if
+    this.lock.lock();
+    try {
+      int n = Math.min(maxElements, this.list.size);
+      for (int i = 0; i < n; i++) {
+        // Add before removing, so that we lose nothing if c.add throws
+        Node2<T> first = this.list.firstHandle();
+        c.add(first.value);
+        this.list.remove(first);
+      } // for
+      if (n > 0) {
+        this.notFull.signalAll();
+      } // if
+      return n;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // drainTo(Collection<? super T>, int)
+
+  public void clear() {
+    this.lock.lock();
+    try {
+      this.list.removeIf((val) -> true);
+      this.notFull.signalAll();
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // clear()
+
+  // +------------------+--------------------------------------------
+  // | Examining Values |
+  // +------------------+
+
+  public T peekFirst() {
+    this.lock.lock();
+    try {
+      return (this.list.size == 0) ? null : this.list.firstHandle().value;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // peekFirst()
+
+  public T peekLast() {
+    this.lock.lock();
+    try {
+      return (this.list.size == 0) ? null : this.list.lastHandle().value;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // peekLast()
+
+  public T getFirst() {
+    T val = peekFirst();
+    if (val == null) {
+      throw new NoSuchElementException();
+    } // if
+    return val;
+  } // getFirst()
+
+  public T getLast() {
+    T val = peekLast();
+    if (val == null) {
+      throw new NoSuchElementException();
+    } // if
+    return val;
+  } // getLast()
+
+  public int size() {
+    this.lock.lock();
+    try {
+      return this.list.size;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // size()
+
+  public int remainingCapacity() {
+    this.lock.lock();
+    try {
+      return this.capacity - this.list.size;
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // remainingCapacity()
+
+  public boolean contains(Object o) {
+    if (o == null) {
+      return false;
+    } // if
+    this.lock.lock();
+    try {
+      // Walk the nodes rather than copy them into a snapshot
+      return this.list.contains(o);
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // contains(Object)
+
+  // +-----------------+---------------------------------------------
+  // | Queue and Stack |
+  // +-----------------+
+
+  // As in the Deque interface, a queue adds at the back and removes from
+  // the front, and a stack pushes and pops at the front.
+
+  public boolean add(T val) {
+    addLast(val);
+    return true;
+  } // add(T)
+
+  public boolean offer(T val) {
+    return offerLast(val);
+  } // offer(T)
+
+  public void put(T val) throws InterruptedException {
+    putLast(val);
+  } // put(T)
+
+  public boolean offer(T val, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    return offerLast(val, timeout, unit);
+  } // offer(T, long, TimeUnit)
+
+  public T remove() {
+    return removeFirst();
+  } // remove()
+
+  public T poll() {
+    return pollFirst();
+  } // poll()
+
+  public T take() throws InterruptedException {
+    return takeFirst();
+  } // take()
+
+  public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return pollFirst(timeout, unit);
+  } // poll(long, TimeUnit)
+
+  public T element() {
+    return getFirst();
+  } // element()
+
+  public T peek() {
+    return peekFirst();
+  } // peek()
+
+  public void push(T val) {
+    addFirst(val);
+  } // push(T)
+
+  public T pop() {
+    return removeFirst();
+  } // pop()
+
+  public boolean remove(Object o) {
+    return removeFirstOccurrence(o);
+  } // remove(Object)
+
+  // +-----------+---------------------------------------------------
+  // | Iterators |
+  // +-----------+
+
+  /**
+   * Get an iterator over a snapshot of the values, first to last.
+   */
+  public Iterator<T> iterator() {
+    return new SnapshotIterator(false);
+  } // iterator()
+
+  /**
+   * Get an iterator over a snapshot of the values, last to first.
+   */
+  public Iterator<T> descendingIterator() {
+    return new SnapshotIterator(true);
+  } // descendingIterator()
+
+  // +----------------+----------------------------------------------
+  // | Helper Methods |
+  // +----------------+
+
+  /**
+   * Add a value at the front if there is room, and wake a taker.  The
+   * lock must be held.
+   */
+  boolean linkFirst(T val) {
+    if (this.list.size >= this.capacity) {
+      return false;
+    } // if
+    this.list.addFirst(val);
+    this.notEmpty.signal();
+    return true;
+  } // linkFirst(T)
+
+  /**
+   * Add a value at the back if there is room, and wake a taker.  The
+   * lock must be held.
+   */
+  boolean linkLast(T val) {
+    if (this.list.size >= this.capacity) {
+      return false;
+    } // if
+    this.list.addLast(val);
+    this.notEmpty.signal();
+    return true;
+  } // linkLast(T)
+
+  /**
+   * Remove and return the first value, or null if there is none, and
+   * wake a putter.  The lock must be held.
+   */
+  T unlinkFirst() {
+    if (this.list.size == 0) {
+      return null;
+    } // if
+    T val = this.list.remove(this.list.firstHandle());
+    this.notFull.signal();
+    return val;
+  } // unlinkFirst()
+
+  /**
+   * Remove and return the last value, or null if there is none, and wake
+   * a putter.  The lock must be held.
+   */
+  T unlinkLast() {
+    if (this.list.size == 0) {
+      return null;
+    } // if
+    T val = this.list.remove(this.list.lastHandle());
+    this.notFull.signal();
+    return val;
+  } // unlinkLast()
+
+  /**
+   * Remove the first value identical to val, if there is one.
+   */
+  void removeIdentical(Object val) {
+    this.lock.lock();
+    try {
+      Iterator<T> it = this.list.iterator();
+      while (it.hasNext()) {
+        if (it.next() == val) {
+          it.remove();
+          this.notFull.signal();
+          return;
+        } // if
+      } // while
+    } finally {
+      this.lock.unlock();
+    } // try/finally
+  } // removeIdentical(Object)
+
+  // +---------------+-----------------------------------------------
+  // | Inner Classes |
+  // +---------------+
+
+  /**
+   * Iterators over a snapshot of the values.
+   */
+  class SnapshotIterator implements Iterator<T> {
+    /**
+     * The values when we were created.
+     */
+    final Object[] values;
+
+    /**
+     * Whether we go from last to first.
+     */
+    final boolean descending;
+
+    /**
+     * The number of values we have returned.
+     */
+    int returned;
+
+    /**
+     * The value we returned last, if it may be removed.
+     */
+    T last;
+
+    SnapshotIterator(boolean descending) {
+      CDLLBlockingDeque.this.lock.lock();
+      try {
+        this.values = CDLLBlockingDeque.this.list.snapshot().toArray();
+      } finally {
+        CDLLBlockingDeque.this.lock.unlock();
+      } // try/finally
+      this.descending = descending;
+      this.returned = 0;
+      this.last = null;
+    } // SnapshotIterator(boolean)
+
+    public boolean hasNext() {
+      return this.returned < this.values.length;
+    } // hasNext()
+
+    @SuppressWarnings("unchecked")
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      } // if
+      int i = this.descending ? this.values.length - 1 - this.returned
+          : this.returned;
+      ++this.returned;
+      this.last = (T) this.values[i];
+      return this.last;
+    } // next()
+
+    public void remove() {
+      if (this.last == null) {
+        throw new IllegalStateException();
+      } // if
+      removeIdentical(this.last);
+      this.last = null;
+    } // remove()
+  } // class SnapshotIterator
+} // class CDLLBlockingDeque<T>
@@ -0,0 +1,172 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writing SimpleCDLLs to files in a compact binary format, and loading
+ * them again.
+ *
+ * A file is a header (the magic number, the format version and the
+ * number of values) followed by the values, one after another, in the
+ * format of an ElementCodec.  The file does not record the codec, so a
+ * file must be loaded with the codec it was written with.
+ */
+public class CDLLFiles {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The first four bytes of every file ("CDLL").
+   */
+  static final int MAGIC = 0x43444C4C;
+
+  /**
+   * The version of the format.
+   */
+  static final int VERSION = 1;
+
+  /**
+   * The number of bytes in the header.
+   */
+  static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+
+  /**
+   * The size of the buffer we write through.
+   */
+  static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+  /**
+   * The most bytes we map at once when loading.  A mapping cannot exceed
+   * 2GB, so larger files are mapped a window at a time.
+   */
+  static final long MAP_WINDOW_BYTES = 1L << 30;
+
+  // +---------+-----------------------------------------------------
+  // | Writing |
+  // +---------+
+
+  /**
+   * Write the values of lst to the file at path, replacing anything that
+   * is there.  Compacts lst first if it removes lazily.
+   */
+  public static <T> void write(SimpleCDLL<T> lst, ElementCodec<T> codec,
+      Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE)) {
+      lst.compact();
+      ByteBuffer buf = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+      buf.putInt(MAGIC);
+      buf.putInt(VERSION);
+      buf.putLong(lst.size);
+      for (Node2<T> node = lst.dummy.next; node != lst.dummy;
+          node = node.next) {
+        int size = codec.size(node.value);
+        if (size > buf.remaining()) {
+          flush(channel, buf);
+          if (size > buf.capacity()) {
+            // A value too big for the buffer gets a buffer of its own
+            ByteBuffer big = ByteBuffer.allocate(size);
+            codec.write(big, node.value);
+            flush(channel, big);
+            continue;
+          } // if
+        } // if
+        codec.write(buf, node.value);
+      } // for
+      flush(channel, buf);
+    } // try
+  } // write(SimpleCDLL<T>, ElementCodec<T>, Path)
+
+  // +---------+-----------------------------------------------------
+  // | Loading |
+  // +---------+
+
+  /**
+   * Load a list from the file at path, which must have been written with
+   * the same codec.  We map the file into memory and build the chain of
+   * nodes as we decode, in one pass.
+   *
+   * @throws IOException if the file is not in our format or is
+   *   truncated.
+   */
+  public static <T> SimpleCDLL<T> load(Path path, ElementCodec<T> codec)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_BYTES) {
+        throw new IOException("not a SimpleCDLL file: " + path);
+      } // if
+      long base = 0;
+      MappedByteBuffer buf = map(channel, base, fileSize);
+      if (buf.getInt() != MAGIC) {
+        throw new IOException("not a SimpleCDLL file: " + path);
+      } // if
+      if (buf.getInt() != VERSION) {
+        throw new IOException("unsupported version in " + path);
+      } // if
+      long count = buf.getLong();
+      if (count < 0 || count > Integer.MAX_VALUE) {
+        throw new IOException("bad value count in " + path);
+      } // if
+
+      SimpleCDLL<T> lst = new SimpleCDLL<T>();
+      Node2<T> last = lst.dummy;
+      for (long i = 0; i < count; i++) {
+        int start = buf.position();
+        T val;
+        try {
+          val = codec.read(buf);
+        } catch (BufferUnderflowException e) {
+          // The value runs past the window; map a new one starting at
+          // the value, unless this window already did
+          if (start == 0 || base + buf.limit() == fileSize) {
+            throw new IOException("truncated file: " + path);
+          } // if
+          base += start;
+          buf = map(channel, base, fileSize);
+          --i;
+          continue;
+        } // try/catch
+        Node2<T> node = new Node2<T>(last, val, null);
+        node.owner = lst.owner;
+        last.next = node;
+        last = node;
+      } // for
+      last.next = lst.dummy;
+      lst.dummy.prev = last;
+      lst.size = (int) count;
+      return lst;
+    } // try
+  } // load(Path, ElementCodec<T>)
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Write out what is in buf and clear it.
+   */
+  static void flush(FileChannel channel, ByteBuffer buf) throws IOException {
+    buf.flip();
+    while (buf.hasRemaining()) {
+      channel.write(buf);
+    } // while
+    buf.clear();
+  } // flush(FileChannel, ByteBuffer)
+
+  /**
+   * Map as much of the file, starting at base, as fits in one window.
+   */
+  static MappedByteBuffer map(FileChannel channel, long base, long fileSize)
+      throws IOException {
+    return channel.map(FileChannel.MapMode.READ_ONLY, base,
+        Math.min(MAP_WINDOW_BYTES, fileSize - base));
+  } // map(FileChannel, long, long)
+} // class CDLLFiles
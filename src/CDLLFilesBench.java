@@ -0,0 +1,118 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ListIterator;
+
+/**
+ * Compares saving and reloading a SimpleCDLL of longs with CDLLFiles
+ * against the usual approach of writing each value through an object
+ * stream and adding each value read with an iterator.
+ *
+ * Usage: java CDLLFilesBench [size]
+ */
+public class CDLLFilesBench {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The number of values when none is given on the command line.
+   */
+  static final int DEFAULT_SIZE = 10_000_000;
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    int n = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+    SimpleCDLL<Long> lst = new SimpleCDLL<Long>();
+    for (long i = 0; i < n; i++) {
+      lst.addLast(i);
+    } // for
+
+    Path path = Files.createTempFile("cdll", ".bin");
+    try {
+      pen.printf("%-14s %12s %12s %12s %12s%n",
+          "Format", "Size", "File MB", "Write ms", "Load ms");
+
+      long start = System.nanoTime();
+      CDLLFiles.write(lst, ElementCodec.LONG, path);
+      long writeNanos = System.nanoTime() - start;
+      start = System.nanoTime();
+      SimpleCDLL<Long> loaded = CDLLFiles.load(path, ElementCodec.LONG);
+      long loadNanos = System.nanoTime() - start;
+      check(lst, loaded);
+      pen.printf("%-14s %12d %12.1f %12.0f %12.0f%n", "CDLLFiles", n,
+          Files.size(path) / 1e6, writeNanos / 1e6, loadNanos / 1e6);
+      loaded = null;
+
+      start = System.nanoTime();
+      writeObjects(lst, path);
+      writeNanos = System.nanoTime() - start;
+      start = System.nanoTime();
+      loaded = readObjects(path);
+      loadNanos = System.nanoTime() - start;
+      check(lst, loaded);
+      pen.printf("%-14s %12d %12.1f %12.0f %12.0f%n", "ObjectStream", n,
+          Files.size(path) / 1e6, writeNanos / 1e6, loadNanos / 1e6);
+    } finally {
+      Files.delete(path);
+    } // try/finally
+  } // main(String[])
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Write the size of the list and then each value to an object stream.
+   */
+  static void writeObjects(SimpleCDLL<Long> lst, Path path)
+      throws IOException {
+    try (ObjectOutputStream out = new ObjectOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(path)))) {
+      out.writeInt(lst.size);
+      for (Long val : lst) {
+        out.writeObject(val);
+      } // for
+    } // try
+  } // writeObjects(SimpleCDLL<Long>, Path)
+
+  /**
+   * Read a list written by writeObjects.
+   */
+  static SimpleCDLL<Long> readObjects(Path path)
+      throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(
+        new BufferedInputStream(Files.newInputStream(path)))) {
+      SimpleCDLL<Long> lst = new SimpleCDLL<Long>();
+      ListIterator<Long> lit = lst.listIterator();
+      for (int i = in.readInt(); i > 0; i--) {
+        lit.add((Long) in.readObject());
+      } // for
+      return lst;
+    } // try
+  } // readObjects(Path)
+
+  /**
+   * Make sure that two lists hold the same values.
+   */
+  static void check(SimpleCDLL<Long> expected, SimpleCDLL<Long> actual) {
+    ListIterator<Long> lit = actual.listIterator();
+    for (Long val : expected) {
+      if (!lit.hasNext() || !val.equals(lit.next())) {
+        throw new IllegalStateException("loaded list differs");
+      } // if
+    } // for
+    if (lit.hasNext()) {
+      throw new IllegalStateException("loaded list differs");
+    } // if
+  } // check(SimpleCDLL<Long>, SimpleCDLL<Long>)
+} // class CDLLFilesBench
@@ -0,0 +1,164 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counts of what a SimpleCDLL and its iterators do, published through
+ * JMX.
+ *
+ * Metrics are off unless the VM is started with -Dcdll.metrics=true.
+ * The switch is a static final field, so when it is off the JIT removes
+ * the instrumentation from the list's code entirely.  When it is on, a
+ * list is counted only once metrics are attached to it with
+ * SimpleCDLL.attachMetrics.
+ *
+ * The counters are LongAdders, so a list whose iterators run in
+ * several threads (under the caller's own locking) does not make them
+ * contend.
+ */
+public class CDLLMetrics implements CDLLMetricsMBean {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * Whether metrics are on.
+   */
+  public static final boolean ENABLED = Boolean.getBoolean("cdll.metrics");
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The name under which we are published.
+   */
+  ObjectName name;
+
+  LongAdder iterators = new LongAdder();
+  LongAdder iteratorSteps = new LongAdder();
+  LongAdder adds = new LongAdder();
+  LongAdder removes = new LongAdder();
+  LongAdder seeks = new LongAdder();
+  LongAdder seekSteps = new LongAdder();
+  LongAdder failFasts = new LongAdder();
+
+  /**
+   * The times taken by bulk operations.
+   */
+  LatencyHistogram bulk = new LatencyHistogram();
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create metrics and publish them as SimpleCDLL:type=CDLLMetrics,
+   * name=listName.
+   *
+   * @throws IllegalStateException if metrics are off.
+   * @throws IllegalArgumentException if metrics with that name have
+   *   already been published, or the name is not valid in JMX.
+   */
+  CDLLMetrics(String listName) {
+    if (!ENABLED) {
+      throw new IllegalStateException(
+          "metrics are off; run with -Dcdll.metrics=true");
+    } // if
+    try {
+      this.name = ObjectName.getInstance("SimpleCDLL:type=CDLLMetrics,name="
+          + ObjectName.quote(listName));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, this.name);
+    } catch (JMException e) {
+      throw new IllegalArgumentException("cannot publish metrics for "
+          + listName, e);
+    } // try/catch
+  } // CDLLMetrics(String)
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Stop publishing these metrics.
+   */
+  public void unpublish() {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (server.isRegistered(this.name)) {
+        server.unregisterMBean(this.name);
+      } // if
+    } catch (JMException e) {
+      throw new IllegalStateException(e);
+    } // try/catch
+  } // unpublish()
+
+  /**
+   * The times taken by bulk operations.
+   */
+  public LatencyHistogram bulkLatencies() {
+    return this.bulk;
+  } // bulkLatencies()
+
+  // +-----+---------------------------------------------------------
+  // | JMX |
+  // +-----+
+
+  public long getIterators() {
+    return this.iterators.sum();
+  } // getIterators()
+
+  public long getIteratorSteps() {
+    return this.iteratorSteps.sum();
+  } // getIteratorSteps()
+
+  public long getAdds() {
+    return this.adds.sum();
+  } // getAdds()
+
+  public long getRemoves() {
+    return this.removes.sum();
+  } // getRemoves()
+
+  public long getSeeks() {
+    return this.seeks.sum();
+  } // getSeeks()
+
+  public double getMeanSeekDistance() {
+    long seeks = this.seeks.sum();
+    return (seeks == 0) ? 0 : (double) this.seekSteps.sum() / seeks;
+  } // getMeanSeekDistance()
+
+  public long getFailFasts() {
+    return this.failFasts.sum();
+  } // getFailFasts()
+
+  public long getBulkOperations() {
+    return this.bulk.count();
+  } // getBulkOperations()
+
+  public double getBulkMeanMicros() {
+    return this.bulk.mean() / 1e3;
+  } // getBulkMeanMicros()
+
+  public double getBulkP99Micros() {
+    return this.bulk.percentile(0.99) / 1e3;
+  } // getBulkP99Micros()
+
+  public double getBulkMaxMicros() {
+    return this.bulk.max() / 1e3;
+  } // getBulkMaxMicros()
+
+  public void reset() {
+    this.iterators.reset();
+    this.iteratorSteps.reset();
+    this.adds.reset();
+    this.removes.reset();
+    this.seeks.reset();
+    this.seekSteps.reset();
+    this.failFasts.reset();
+    this.bulk.reset();
+  } // reset()
+} // class CDLLMetrics
@@ -0,0 +1,61 @@
+/**
+ * The view of CDLLMetrics published through JMX.
+ */
+public interface CDLLMetricsMBean {
+  /**
+   * The number of iterators created.
+   */
+  public long getIterators();
+
+  /**
+   * The number of steps taken by iterators (calls to next and previous,
+   * and values visited by forEachRemaining).
+   */
+  public long getIteratorSteps();
+
+  /**
+   * The number of values added.
+   */
+  public long getAdds();
+
+  /**
+   * The number of values removed.
+   */
+  public long getRemoves();
+
+  /**
+   * The number of seeks for positional access.
+   */
+  public long getSeeks();
+
+  /**
+   * The mean number of nodes walked per seek.
+   */
+  public double getMeanSeekDistance();
+
+  /**
+   * The number of ConcurrentModificationExceptions thrown.
+   */
+  public long getFailFasts();
+
+  /**
+   * The number of bulk operations (removeIf, replaceAll, splicing,
+   * splitting and taking snapshots).
+   */
+  public long getBulkOperations();
+
+  /**
+   * The mean, 99th percentile and largest time taken by a bulk operation,
+   * in microseconds.
+   */
+  public double getBulkMeanMicros();
+
+  public double getBulkP99Micros();
+
+  public double getBulkMaxMicros();
+
+  /**
+   * Set every count back to zero.
+   */
+  public void reset();
+} // interface CDLLMetricsMBean
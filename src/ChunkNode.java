@@ -0,0 +1,126 @@
+import java.util.Arrays;
+
+/**
+ * Nodes for unrolled, circularly-linked, doubly-linked structures.  Each
+ * node holds a small array of values rather than a single value.  Since
+ * the structures are circular, the links are never null while a node is
+ * in a list.
+ */
+public class ChunkNode<T> {
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The previous node.
+   */
+  ChunkNode<T> prev;
+
+  /**
+   * The stored values.  Only the first count entries are used.
+   */
+  Object[] values;
+
+  /**
+   * The number of values stored in this node.
+   */
+  int count;
+
+  /**
+   * The next node.
+   */
+  ChunkNode<T> next;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create a new, empty, unlinked node with room for capacity values.
+   */
+  public ChunkNode(int capacity) {
+    this.prev = null;
+    this.values = new Object[capacity];
+    this.count = 0;
+    this.next = null;
+  } // ChunkNode(int)
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Get the value at index i of this node.
+   */
+  @SuppressWarnings("unchecked")
+  T get(int i) {
+    return (T) this.values[i];
+  } // get(int)
+
+  /**
+   * Insert a value at index i of this node, shifting the later values
+   * up.  The node must not be full.
+   */
+  void insert(int i, T val) {
+    System.arraycopy(this.values, i, this.values, i + 1, this.count - i);
+    this.values[i] = val;
+    ++this.count;
+  } // insert(int, T)
+
+  /**
+   * Remove the value at index i of this node, shifting the later values
+   * down.
+   */
+  void removeAt(int i) {
+    --this.count;
+    System.arraycopy(this.values, i + 1, this.values, i, this.count - i);
+    this.values[this.count] = null;
+  } // removeAt(int)
+
+  /**
+   * Move the upper half of the values of this node into a new node
+   * linked in after this node.  Returns the new node.
+   */
+  ChunkNode<T> split() {
+    ChunkNode<T> tmp = new ChunkNode<T>(this.values.length);
+    int half = this.count / 2;
+    int moved = this.count - half;
+    System.arraycopy(this.values, half, tmp.values, 0, moved);
+    Arrays.fill(this.values, half, this.count, null);
+    tmp.count = moved;
+    this.count = half;
+    return this.linkAfter(tmp);
+  } // split()
+
+  /**
+   * Append all the values of the following node to this node and remove
+   * that node.  The values must fit.
+   */
+  void absorbNext() {
+    ChunkNode<T> other = this.next;
+    System.arraycopy(other.values, 0, this.values, this.count, other.count);
+    this.count += other.count;
+    other.remove();
+  } // absorbNext()
+
+  /**
+   * Link an unlinked node in after this node.  Returns that node.
+   */
+  ChunkNode<T> linkAfter(ChunkNode<T> node) {
+    node.prev = this;
+    node.next = this.next;
+    this.next.prev = node;
+    this.next = node;
+    return node;
+  } // linkAfter(ChunkNode<T>)
+
+  /**
+   * Remove this node.
+   */
+  void remove() {
+    this.prev.next = this.next;
+    this.next.prev = this.prev;
+    this.prev = null;
+    this.next = null;
+  } // remove()
+} // ChunkNode<T>
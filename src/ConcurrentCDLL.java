@@ -0,0 +1,587 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Lock-free, thread-safe, circularly-linked, doubly-linked lists with a
+ * dummy node.
+ *
+ * The next links are the real structure of the list; every change to
+ * them is a compare-and-set.  A node is deleted by swinging its next link
+ * to a marker node (which holds the old successor), after which no one
+ * can insert after it, and then unlinked by swinging its predecessor's
+ * next link past it.  Any thread that runs into a deleted node helps
+ * unlink it.  The prev links are only hints: each points at some node
+ * that is (or was) earlier in the list, and we use them to find the last
+ * node and the predecessors of nodes quickly.
+ *
+ * Removing from the front must be sure that the node it deletes is still
+ * the first at the moment it deletes it, but the deletion changes that
+ * node's next link, while adding at the front changes the dummy's.  So
+ * pollFirst first claims the front: it swings the dummy's next link from
+ * the first node to a claim node (which points at it), which keeps
+ * anyone from adding in front of it, and then deletes the node and swings
+ * the dummy's next link past both.  Any thread that runs into a claim
+ * helps finish it.  (Removing from the back needs no claim, since both
+ * adding and removing there change the last node's next link.)
+ *
+ * Inserting and removing at either end, and inserting and removing at a
+ * cursor, are linearizable.  Iterators (cursors) are weakly consistent:
+ * they never throw ConcurrentModificationException, and they see every
+ * value that was in the list for the whole traversal, but may or may not
+ * see values added or removed during it.
+ *
+ * Null values are not permitted.
+ */
+public class ConcurrentCDLL<T> implements Iterable<T> {
+  // +-----------+---------------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The item of every marker node.
+   */
+  static final Object MARKER = new Object();
+
+  /**
+   * The item of every claim node.
+   */
+  static final Object CLAIM = new Object();
+
+  @SuppressWarnings("rawtypes")
+  static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+      AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+  @SuppressWarnings("rawtypes")
+  static final AtomicReferenceFieldUpdater<Node, Node> PREV =
+      AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "prev");
+
+  // +--------+------------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * A dummy node precedes the front node and follows the back node.  It
+   * is never deleted.
+   */
+  final Node<T> dummy;
+
+  // +--------------+------------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create an empty list.
+   */
+  public ConcurrentCDLL() {
+    this.dummy = new Node<T>(null);
+    this.dummy.next = this.dummy;
+    this.dummy.prev = this.dummy;
+  } // ConcurrentCDLL()
+
+  // +---------------+-----------------------------------------------------
+  // | Deque Methods |
+  // +---------------+
+
+  /**
+   * Add a value at the front of the list.
+   */
+  public void offerFirst(T val) {
+    Node<T> node = new Node<T>(checkValue(val));
+    while (true) {
+      Node<T> first = this.dummy.next;
+      if (first.isClaim()) {
+        finishClaim(first);
+        continue;
+      } // if
+      if (first != this.dummy && first.isDeleted()) {
+        casNext(this.dummy, first, first.next.next);
+        continue;
+      } // if
+      node.prev = this.dummy;
+      node.next = first;
+      if (casNext(this.dummy, first, node)) {
+        casPrev(first, this.dummy, node);
+        return;
+      } // if
+    } // while
+  } // offerFirst(T)
+
+  /**
+   * Add a value at the back of the list.
+   */
+  public void offerLast(T val) {
+    Node<T> node = new Node<T>(checkValue(val));
+    while (true) {
+      Node<T> last = last();
+      node.prev = last;
+      node.next = this.dummy;
+      if (casNext(last, this.dummy, node)) {
+        this.dummy.prev = node;
+        return;
+      } // if
+    } // while
+  } // offerLast(T)
+
+  /**
+   * Remove and return the value at the front of the list, or return null
+   * if the list is empty.
+   */
+  public T pollFirst() {
+    while (true) {
+      Node<T> first = this.dummy.next;
+      if (first.isClaim()) {
+        finishClaim(first);
+      } else if (first == this.dummy) {
+        return null;
+      } else if (first.isDeleted()) {
+        casNext(this.dummy, first, first.next.next);
+      } else {
+        Node<T> claim = Node.claim(first);
+        if (casNext(this.dummy, first, claim)) {
+          finishClaim(claim);
+          // We removed first only if our claim's marker deleted it
+          if (first.next.prev == claim) {
+            return first.item();
+          } // if
+        } // if
+      } // if/else
+    } // while
+  } // pollFirst()
+
+  /**
+   * Remove and return the value at the back of the list, or return null
+   * if the list is empty.
+   */
+  public T pollLast() {
+    while (true) {
+      Node<T> last = last();
+      if (last == this.dummy) {
+        return null;
+      } // if
+      // Expecting the dummy after last confirms that last is still the
+      // back, since adding at the back changes the same link
+      if (casNext(last, this.dummy, Node.marker(this.dummy))) {
+        unlink(last);
+        return last.item();
+      } // if
+    } // while
+  } // pollLast()
+
+  /**
+   * Return the value at the front of the list, or null if the list is
+   * empty.
+   */
+  public T peekFirst() {
+    Node<T> node = successor(this.dummy);
+    return (node == this.dummy) ? null : node.item();
+  } // peekFirst()
+
+  /**
+   * Return the value at the back of the list, or null if the list is
+   * empty.
+   */
+  public T peekLast() {
+    while (true) {
+      Node<T> last = last();
+      if (last == this.dummy) {
+        return null;
+      } // if
+      if (!last.isDeleted()) {
+        return last.item();
+      } // if
+    } // while
+  } // peekLast()
+
+  /**
+   * Determine whether the list is empty.
+   */
+  public boolean isEmpty() {
+    return successor(this.dummy) == this.dummy;
+  } // isEmpty()
+
+  /**
+   * Count the values in the list.  This takes O(n) time, and the answer
+   * may be out of date by the time it is returned.
+   */
+  public int size() {
+    int count = 0;
+    for (Node<T> node = successor(this.dummy); node != this.dummy;
+        node = successor(node)) {
+      ++count;
+    } // for
+    return count;
+  } // size()
+
+  // +-----------+---------------------------------------------------------
+  // | Iterators |
+  // +-----------+
+
+  public Iterator<T> iterator() {
+    return cursor();
+  } // iterator()
+
+  /**
+   * Get a weakly consistent cursor that starts at the front of the list.
+   */
+  public Cursor cursor() {
+    return new Cursor();
+  } // cursor()
+
+  /**
+   * A weakly consistent cursor.  Besides iterating, a cursor can remove
+   * the value it last returned and insert values just before or just
+   * after it.
+   */
+  public class Cursor implements Iterator<T> {
+    /**
+     * The node holding the next value to return (or the dummy), and that
+     * value.  We hold on to the value in case the node is deleted before
+     * we return it.
+     */
+    Node<T> nextNode = successor(ConcurrentCDLL.this.dummy);
+    T nextItem = (nextNode == ConcurrentCDLL.this.dummy) ? null
+        : nextNode.item();
+
+    /**
+     * The node holding the value last returned, or null.
+     */
+    Node<T> lastRet = null;
+
+    public boolean hasNext() {
+      return this.nextNode != ConcurrentCDLL.this.dummy;
+    } // hasNext()
+
+    public T next() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      } // if
+      T val = this.nextItem;
+      this.lastRet = this.nextNode;
+      this.nextNode = successor(this.nextNode);
+      this.nextItem = (this.nextNode == ConcurrentCDLL.this.dummy) ? null
+          : this.nextNode.item();
+      return val;
+    } // next()
+
+    /**
+     * Remove the value last returned, unless another thread has already
+     * removed it.
+     *
+     * @throws IllegalStateException if next has not been called.
+     */
+    public void remove() {
+      ConcurrentCDLL.this.delete(lastReturned());
+      this.lastRet = null;
+    } // remove()
+
+    /**
+     * Insert a value just after the value last returned.  Returns false
+     * (and does nothing) if that value has been removed.
+     *
+     * @throws IllegalStateException if next has not been called.
+     */
+    public boolean insertAfter(T val) {
+      return ConcurrentCDLL.this.insertAfter(lastReturned(), val);
+    } // insertAfter(T)
+
+    /**
+     * Insert a value just before the value last returned.  Returns false
+     * (and does nothing) if that value has been removed.
+     *
+     * @throws IllegalStateException if next has not been called.
+     */
+    public boolean insertBefore(T val) {
+      return ConcurrentCDLL.this.insertBefore(lastReturned(), val);
+    } // insertBefore(T)
+
+    Node<T> lastReturned() {
+      if (this.lastRet == null) {
+        throw new IllegalStateException();
+      } // if
+      return this.lastRet;
+    } // lastReturned()
+  } // class Cursor
+
+  // +----------------+----------------------------------------------------
+  // | Helper Methods |
+  // +----------------+
+
+  static <T> T checkValue(T val) {
+    if (val == null) {
+      throw new NullPointerException();
+    } // if
+    return val;
+  } // checkValue(T)
+
+  @SuppressWarnings("unchecked")
+  static <T> boolean casNext(Node<T> node, Node<T> expect, Node<T> update) {
+    return NEXT.compareAndSet(node, expect, update);
+  } // casNext(Node<T>, Node<T>, Node<T>)
+
+  @SuppressWarnings("unchecked")
+  static <T> boolean casPrev(Node<T> node, Node<T> expect, Node<T> update) {
+    return PREV.compareAndSet(node, expect, update);
+  } // casPrev(Node<T>, Node<T>, Node<T>)
+
+  /**
+   * Find the first node after node that has not been deleted, or the
+   * dummy.  node itself may have been deleted.
+   */
+  Node<T> successor(Node<T> node) {
+    Node<T> succ = node.next;
+    while (true) {
+      if (succ.isMarker() || succ.isClaim()) {
+        // A claimed node stays in the list until it is deleted
+        succ = succ.next;
+      } else if (succ != this.dummy && succ.isDeleted()) {
+        succ = succ.next.next;
+      } else {
+        return succ;
+      } // if/else
+    } // while
+  } // successor(Node<T>)
+
+  /**
+   * Find a node that is not deleted and comes before node, starting from
+   * the hint in node.prev and backing up past deleted nodes.
+   */
+  Node<T> livePredecessorHint(Node<T> node) {
+    Node<T> hint = node.prev;
+    Node<T> pred = hint;
+    while (pred != this.dummy && pred.isDeleted()) {
+      pred = pred.prev;
+    } // while
+    // Save the next caller the walk past the deleted nodes
+    if (pred != hint) {
+      casPrev(node, hint, pred);
+    } // if
+    return pred;
+  } // livePredecessorHint(Node<T>)
+
+  /**
+   * Find the last node of the list: a node that is not deleted and whose
+   * next link is the dummy.  Returns the dummy if the list is empty.  The
+   * node may be deleted by the time the caller looks at it, so callers
+   * must check with a compare-and-set.
+   */
+  Node<T> last() {
+    Node<T> pred = livePredecessorHint(this.dummy);
+    while (true) {
+      Node<T> succ = pred.next;
+      if (succ == this.dummy) {
+        return pred;
+      } else if (succ.isClaim()) {
+        finishClaim(succ);
+      } else if (succ.isMarker()) {
+        pred = livePredecessorHint(pred);
+      } else if (succ.isDeleted()) {
+        casNext(pred, succ, succ.next.next);
+      } else {
+        pred = succ;
+      } // if/else
+    } // while
+  } // last()
+
+  /**
+   * Unlink a deleted node from the list, if no one else has done so.
+   */
+  void unlink(Node<T> node) {
+    Node<T> succ = node.next.next;
+    Node<T> pred = livePredecessorHint(node);
+    while (true) {
+      Node<T> next = pred.next;
+      if (next == node) {
+        if (casNext(pred, node, succ)) {
+          casPrev(succ, node, pred);
+          return;
+        } // if
+      } else if (next.isClaim()) {
+        finishClaim(next);
+      } else if (next.isMarker()) {
+        // Our predecessor has been deleted; back up
+        pred = livePredecessorHint(pred);
+      } else if (next == this.dummy) {
+        // We got all the way around without finding the node, so it has
+        // already been unlinked
+        return;
+      } else if (next.isDeleted()) {
+        casNext(pred, next, next.next.next);
+      } else {
+        pred = next;
+      } // if/else
+    } // while
+  } // unlink(Node<T>)
+
+  /**
+   * Delete a node and unlink it.  Returns false if it was already
+   * deleted.
+   */
+  boolean delete(Node<T> node) {
+    while (true) {
+      Node<T> succ = node.next;
+      if (succ.isMarker()) {
+        return false;
+      } // if
+      if (casNext(node, succ, Node.marker(succ))) {
+        unlink(node);
+        return true;
+      } // if
+    } // while
+  } // delete(Node<T>)
+
+  /**
+   * Finish the pollFirst that swung the dummy's next link to claim.  We
+   * delete the claimed node, with a marker whose prev link is the claim
+   * so that the poller knows the deletion was its own, and then swing
+   * the dummy's next link past the claim and the node.  If someone else
+   * deleted the node first, we put the node back after the dummy (where
+   * it will be unlinked like any deleted node) and the poller tries
+   * again.  Every helper makes the same changes, so it does not matter
+   * which of them gets there first.
+   */
+  void finishClaim(Node<T> claim) {
+    Node<T> first = claim.prev;
+    Node<T> marker;
+    while (true) {
+      Node<T> succ = first.next;
+      if (succ.isMarker()) {
+        marker = succ;
+        break;
+      } // if
+      Node<T> ours = Node.marker(succ);
+      ours.prev = claim;
+      if (casNext(first, succ, ours)) {
+        marker = ours;
+        break;
+      } // if
+    } // while
+    if (marker.prev == claim) {
+      if (casNext(this.dummy, claim, marker.next)) {
+        casPrev(marker.next, first, this.dummy);
+      } // if
+    } else {
+      casNext(this.dummy, claim, first);
+    } // if/else
+  } // finishClaim(Node<T>)
+
+  /**
+   * Insert a value after a node.  Returns false if the node is deleted.
+   */
+  boolean insertAfter(Node<T> pred, T val) {
+    Node<T> node = new Node<T>(checkValue(val));
+    while (true) {
+      Node<T> succ = pred.next;
+      if (succ.isMarker()) {
+        return false;
+      } // if
+      node.prev = pred;
+      node.next = succ;
+      if (casNext(pred, succ, node)) {
+        casPrev(succ, pred, node);
+        if (succ == this.dummy) {
+          this.dummy.prev = node;
+        } // if
+        return true;
+      } // if
+    } // while
+  } // insertAfter(Node<T>, T)
+
+  /**
+   * Insert a value before a node.  Returns false if the node is deleted.
+   */
+  boolean insertBefore(Node<T> succ, T val) {
+    Node<T> node = new Node<T>(checkValue(val));
+    Node<T> pred = livePredecessorHint(succ);
+    while (true) {
+      if (succ.isDeleted()) {
+        return false;
+      } // if
+      Node<T> next = pred.next;
+      if (next == succ) {
+        node.prev = pred;
+        node.next = succ;
+        if (casNext(pred, succ, node)) {
+          casPrev(succ, pred, node);
+          return true;
+        } // if
+      } else if (next.isClaim()) {
+        finishClaim(next);
+      } else if (next.isMarker()) {
+        pred = livePredecessorHint(pred);
+      } else if (next == this.dummy) {
+        // Not found; it must have been deleted and unlinked
+        return false;
+      } else if (next.isDeleted()) {
+        casNext(pred, next, next.next.next);
+      } else {
+        pred = next;
+      } // if/else
+    } // while
+  } // insertBefore(Node<T>, T)
+
+  // +---------------+-----------------------------------------------------
+  // | Inner Classes |
+  // +---------------+
+
+  /**
+   * Nodes of concurrent lists.  A marker node has MARKER as its item and
+   * the successor of the deleted node as its next link; if pollFirst
+   * deleted the node, its prev link is the claim.  A claim node, which
+   * is only ever the dummy's successor, has CLAIM as its item and the
+   * claimed node as both of its links.
+   */
+  static final class Node<T> {
+    final Object item;
+    volatile Node<T> prev;
+    volatile Node<T> next;
+
+    /**
+     * Create a node holding a value (or, for the dummy, null, or, for a
+     * marker, MARKER).
+     */
+    Node(Object item) {
+      this.item = item;
+    } // Node(Object)
+
+    /**
+     * Create a marker node for a node whose successor is succ.
+     */
+    static <T> Node<T> marker(Node<T> succ) {
+      Node<T> marker = new Node<T>(MARKER);
+      marker.next = succ;
+      return marker;
+    } // marker(Node<T>)
+
+    /**
+     * Create a claim node for the first node of a list.
+     */
+    static <T> Node<T> claim(Node<T> first) {
+      Node<T> claim = new Node<T>(CLAIM);
+      claim.prev = first;
+      claim.next = first;
+      return claim;
+    } // claim(Node<T>)
+
+    @SuppressWarnings("unchecked")
+    T item() {
+      return (T) this.item;
+    } // item()
+
+    boolean isMarker() {
+      return this.item == MARKER;
+    } // isMarker()
+
+    boolean isClaim() {
+      return this.item == CLAIM;
+    } // isClaim()
+
+    /**
+     * Determine whether this node has been deleted (its next link is a
+     * marker).
+     */
+    boolean isDeleted() {
+      return this.next.isMarker();
+    } // isDeleted()
+  } // class Node<T>
+} // class ConcurrentCDLL<T>
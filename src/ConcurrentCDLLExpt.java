@@ -0,0 +1,231 @@
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stress test of the end operations of ConcurrentCDLL that checks
+ * that every run is linearizable, not just that no value is lost or
+ * duplicated.
+ *
+ * Each round, a few threads run a few random end operations on a short
+ * list, and we record when each operation started and finished (by a
+ * shared counter) and what it returned.  We then search for an order of
+ * the operations, consistent with those times, in which an ArrayDeque
+ * returns the same results.  A round with no such order is a violation,
+ * and we print it.
+ *
+ * Usage: java ConcurrentCDLLExpt [rounds [threads [ops-per-thread]]]
+ */
+public class ConcurrentCDLLExpt {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The names of the operations, indexed by code.
+   */
+  static final String[] NAMES = {"offerFirst", "offerLast", "pollFirst",
+      "pollLast", "peekFirst", "peekLast"};
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 20_000;
+    int threads = (args.length > 1) ? Integer.parseInt(args[1]) : 3;
+    int ops = (args.length > 2) ? Integer.parseInt(args[2]) : 3;
+
+    Random random = new Random(SimpleListBench.SEED);
+    int violations = 0;
+    for (int round = 0; round < rounds; round++) {
+      int prefill = random.nextInt(3);
+      Op[] history = run(random, prefill, threads, ops);
+      if (!linearizable(history, prefill)) {
+        if (violations++ == 0) {
+          pen.println("Not linearizable (prefill " + prefill + "):");
+          for (Op op : history) {
+            pen.println("  " + op);
+          } // for
+        } // if
+      } // if
+    } // for
+    pen.printf("%d rounds of %d threads x %d operations: %d violations%n",
+        rounds, threads, ops, violations);
+  } // main(String[])
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Run one round and return its history, ordered by thread and then
+   * by operation.  The list starts with the values 0 through prefill - 1;
+   * thread t adds the values 100 * (t + 1) and up.
+   */
+  static Op[] run(Random random, int prefill, int threads, int ops)
+      throws InterruptedException {
+    ConcurrentCDLL<Integer> lst = new ConcurrentCDLL<Integer>();
+    for (int i = 0; i < prefill; i++) {
+      lst.offerLast(i);
+    } // for
+    Op[] history = new Op[threads * ops];
+    for (int i = 0; i < history.length; i++) {
+      history[i] = new Op(random.nextInt(NAMES.length),
+          100 * (i / ops + 1) + i % ops);
+    } // for
+
+    AtomicLong clock = new AtomicLong();
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      int first = t * ops;
+      workers[t] = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        } // try/catch
+        for (int i = first; i < first + ops; i++) {
+          Op op = history[i];
+          op.start = clock.getAndIncrement();
+          op.result = apply(lst, op);
+          op.end = clock.getAndIncrement();
+        } // for
+      });
+      workers[t].start();
+    } // for
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    } // for
+    return history;
+  } // run(Random, int, int, int)
+
+  /**
+   * Apply an operation to lst and return its result.
+   */
+  static Integer apply(ConcurrentCDLL<Integer> lst, Op op) {
+    switch (op.code) {
+      case 0:
+        lst.offerFirst(op.arg);
+        return null;
+      case 1:
+        lst.offerLast(op.arg);
+        return null;
+      case 2:
+        return lst.pollFirst();
+      case 3:
+        return lst.pollLast();
+      case 4:
+        return lst.peekFirst();
+      default:
+        return lst.peekLast();
+    } // switch
+  } // apply(ConcurrentCDLL<Integer>, Op)
+
+  /**
+   * Apply an operation to a sequential deque and return its result.
+   */
+  static Integer apply(ArrayDeque<Integer> deque, Op op) {
+    switch (op.code) {
+      case 0:
+        deque.offerFirst(op.arg);
+        return null;
+      case 1:
+        deque.offerLast(op.arg);
+        return null;
+      case 2:
+        return deque.pollFirst();
+      case 3:
+        return deque.pollLast();
+      case 4:
+        return deque.peekFirst();
+      default:
+        return deque.peekLast();
+    } // switch
+  } // apply(ArrayDeque<Integer>, Op)
+
+  /**
+   * Determine whether some order of the operations in history, in which
+   * each operation comes after every operation that finished before it
+   * started, gives the same results on a sequential deque that starts
+   * with the values 0 through prefill - 1.
+   */
+  static boolean linearizable(Op[] history, int prefill) {
+    ArrayDeque<Integer> deque = new ArrayDeque<Integer>();
+    for (int i = 0; i < prefill; i++) {
+      deque.offerLast(i);
+    } // for
+    return search(history, new boolean[history.length], 0, deque);
+  } // linearizable(Op[], int)
+
+  /**
+   * Extend an order in which the operations marked done have been
+   * applied to deque, trying each operation that may come next.
+   */
+  static boolean search(Op[] history, boolean[] done, int count,
+      ArrayDeque<Integer> deque) {
+    if (count == history.length) {
+      return true;
+    } // if
+    // An operation may come next only if it started before every
+    // remaining operation finished
+    long earliestEnd = Long.MAX_VALUE;
+    for (int i = 0; i < history.length; i++) {
+      if (!done[i]) {
+        earliestEnd = Math.min(earliestEnd, history[i].end);
+      } // if
+    } // for
+    for (int i = 0; i < history.length; i++) {
+      if (!done[i] && history[i].start < earliestEnd) {
+        ArrayDeque<Integer> next = deque.clone();
+        if (Objects.equals(apply(next, history[i]), history[i].result)) {
+          done[i] = true;
+          if (search(history, done, count + 1, next)) {
+            return true;
+          } // if
+          done[i] = false;
+        } // if
+      } // if
+    } // for
+    return false;
+  } // search(Op[], boolean[], int, ArrayDeque<Integer>)
+
+  // +---------------+-----------------------------------------------
+  // | Inner Classes |
+  // +---------------+
+
+  /**
+   * An operation in a history.
+   */
+  static class Op {
+    /**
+     * What the operation is, and the value it adds, if it adds one.
+     */
+    final int code;
+    final int arg;
+
+    /**
+     * When it started and finished, and what it returned.
+     */
+    long start;
+    long end;
+    Integer result;
+
+    Op(int code, int arg) {
+      this.code = code;
+      this.arg = arg;
+    } // Op(int, int)
+
+    public String toString() {
+      return String.format("[%d, %d] %s%s -> %s", this.start, this.end,
+          NAMES[this.code], (this.code < 2) ? "(" + this.arg + ")" : "()",
+          this.result);
+    } // toString()
+  } // class Op
+} // class ConcurrentCDLLExpt
@@ -0,0 +1,107 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Ways of storing values as variable-width records in a ByteBuffer, for
+ * streaming lists to and from files.  Unlike RecordCodec, reads and
+ * writes are relative: they start at the buffer's position and advance
+ * it past the record.
+ */
+public interface ElementCodec<T> {
+  /**
+   * The number of bytes val takes.
+   */
+  public int size(T val);
+
+  /**
+   * Store val in buf at its position.  buf has at least size(val) bytes
+   * remaining.
+   */
+  public void write(ByteBuffer buf, T val);
+
+  /**
+   * Read the value stored in buf at its position.
+   *
+   * @throws java.nio.BufferUnderflowException if buf ends before the
+   *   value does.
+   */
+  public T read(ByteBuffer buf);
+
+  /**
+   * Store values with a fixed-width RecordCodec.
+   */
+  public static <T> ElementCodec<T> of(RecordCodec<T> codec) {
+    return new ElementCodec<T>() {
+      public int size(T val) {
+        return codec.width();
+      } // size(T)
+
+      public void write(ByteBuffer buf, T val) {
+        int offset = buf.position();
+        buf.position(offset + codec.width());
+        codec.write(buf, offset, val);
+      } // write(ByteBuffer, T)
+
+      public T read(ByteBuffer buf) {
+        if (buf.remaining() < codec.width()) {
+          throw new BufferUnderflowException();
+        } // if
+        int offset = buf.position();
+        buf.position(offset + codec.width());
+        return codec.read(buf, offset);
+      } // read(ByteBuffer)
+    };
+  } // of(RecordCodec<T>)
+
+  // +--------+------------------------------------------------------
+  // | Codecs |
+  // +--------+
+
+  /**
+   * Integers, as four bytes.
+   */
+  public static final ElementCodec<Integer> INT = of(RecordCodec.INT);
+
+  /**
+   * Longs, as eight bytes.
+   */
+  public static final ElementCodec<Long> LONG = of(RecordCodec.LONG);
+
+  /**
+   * Doubles, as eight bytes.
+   */
+  public static final ElementCodec<Double> DOUBLE = of(RecordCodec.DOUBLE);
+
+  /**
+   * Strings, as their length followed by their UTF-16 chars.  This takes
+   * more room than UTF-8 for ASCII text, but the size is known without
+   * encoding the string.
+   */
+  public static final ElementCodec<String> STRING = new ElementCodec<String>() {
+    public int size(String val) {
+      return Integer.BYTES + Character.BYTES * val.length();
+    } // size(String)
+
+    public void write(ByteBuffer buf, String val) {
+      int length = val.length();
+      buf.putInt(length);
+      for (int i = 0; i < length; i++) {
+        buf.putChar(val.charAt(i));
+      } // for
+    } // write(ByteBuffer, String)
+
+    public String read(ByteBuffer buf) {
+      int length = buf.getInt();
+      if (length < 0) {
+        throw new IllegalArgumentException("negative string length");
+      } // if
+      if (length > buf.remaining() / Character.BYTES) {
+        throw new BufferUnderflowException();
+      } // if
+      char[] chars = new char[length];
+      buf.asCharBuffer().get(chars);
+      buf.position(buf.position() + Character.BYTES * chars.length);
+      return new String(chars);
+    } // read(ByteBuffer)
+  }; // STRING
+} // interface ElementCodec<T>
@@ -0,0 +1,290 @@
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * Estimates of how many bytes objects take on the heap, in the manner of
+ * JOL but without needing it.
+ *
+ * The shallow size of an object is its header plus its fields, rounded
+ * up to the object alignment; the shallow size of an array is its header
+ * plus its elements, rounded up the same way.  The header and reference
+ * sizes are read from the running VM (compressed oops and class
+ * pointers), so the estimates match the heap we run in.  HotSpot may
+ * leave small gaps between fields, so an estimate can be a few bytes
+ * low for an object with mixed field sizes.
+ *
+ * The retained size of an object is the total shallow size of every
+ * object reachable from it, not counting classes or static fields.
+ * References held by objects whose classes are closed to reflection
+ * (most of java.base, unless the VM is run with --add-opens) cannot be
+ * followed; such objects count only their shallow size, and the result
+ * is marked incomplete.  Strings are the exception: we account for
+ * their character arrays without reflection.
+ */
+public class Footprint {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The size of a reference.
+   */
+  static final int REF_BYTES;
+
+  /**
+   * The size of an object header.
+   */
+  static final int HEADER_BYTES;
+
+  /**
+   * The size of an array header, including the length.
+   */
+  static final int ARRAY_HEADER_BYTES;
+
+  /**
+   * Objects start on multiples of this many bytes.
+   */
+  static final int ALIGNMENT;
+
+  static {
+    HotSpotDiagnosticMXBean vm =
+        ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+    boolean compressedOops = vmFlag(vm, "UseCompressedOops", "true")
+        .equals("true");
+    boolean compressedClasses = vmFlag(vm, "UseCompressedClassPointers",
+        "true").equals("true");
+    REF_BYTES = compressedOops ? 4 : 8;
+    HEADER_BYTES = compressedClasses ? 12 : 16;
+    ARRAY_HEADER_BYTES = compressedClasses ? 16 : 20;
+    ALIGNMENT = Integer.parseInt(vmFlag(vm, "ObjectAlignmentInBytes", "8"));
+  } // static
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The shallow size of instances of each class.
+   */
+  static final ClassValue<Long> SHALLOW = new ClassValue<Long>() {
+    protected Long computeValue(Class<?> type) {
+      long bytes = HEADER_BYTES;
+      for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+        for (Field field : c.getDeclaredFields()) {
+          if (!Modifier.isStatic(field.getModifiers())) {
+            bytes += typeBytes(field.getType());
+          } // if
+        } // for
+      } // for
+      return align(bytes);
+    } // computeValue(Class<?>)
+  }; // SHALLOW
+
+  /**
+   * The instance fields of each class that hold references and that we
+   * can read, or null if there are some we cannot read.
+   */
+  static final ClassValue<Field[]> REFS = new ClassValue<Field[]>() {
+    protected Field[] computeValue(Class<?> type) {
+      List<Field> refs = new ArrayList<Field>();
+      for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+        for (Field field : c.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers())
+              || field.getType().isPrimitive()) {
+            continue;
+          } // if
+          if (!field.trySetAccessible()) {
+            return null;
+          } // if
+          refs.add(field);
+        } // for
+      } // for
+      return refs.toArray(new Field[refs.size()]);
+    } // computeValue(Class<?>)
+  }; // REFS
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * The shallow size of obj.
+   */
+  public static long shallowSize(Object obj) {
+    Class<?> type = obj.getClass();
+    if (type.isArray()) {
+      return arrayBytes(type.getComponentType(), Array.getLength(obj));
+    } // if
+    return SHALLOW.get(type);
+  } // shallowSize(Object)
+
+  /**
+   * The shallow size of instances of type.
+   */
+  public static long shallowSize(Class<?> type) {
+    return SHALLOW.get(type);
+  } // shallowSize(Class<?>)
+
+  /**
+   * The size of an array with the given element type and length.
+   */
+  public static long arrayBytes(Class<?> elementType, long length) {
+    return align(ARRAY_HEADER_BYTES + length * typeBytes(elementType));
+  } // arrayBytes(Class<?>, long)
+
+  /**
+   * The retained size of root.
+   */
+  public static Result retainedSize(Object root) {
+    return retainedSize(root, Collections.emptySet());
+  } // retainedSize(Object)
+
+  /**
+   * The retained size of root, also noting how much of it is taken by
+   * the objects in values (and whatever they retain).  values must be an
+   * identity set.
+   */
+  public static Result retainedSize(Object root, Set<Object> values) {
+    Result result = new Result();
+    Set<Object> seen = Collections.newSetFromMap(
+        new IdentityHashMap<Object, Boolean>());
+    ArrayDeque<Object> todo = new ArrayDeque<Object>();
+    ArrayDeque<Boolean> inValue = new ArrayDeque<Boolean>();
+    todo.push(root);
+    inValue.push(false);
+    while (!todo.isEmpty()) {
+      Object obj = todo.pop();
+      boolean value = inValue.pop() || values.contains(obj);
+      if (obj instanceof Class || !seen.add(obj)) {
+        continue;
+      } // if
+      long bytes = shallowSize(obj);
+      Class<?> type = obj.getClass();
+      if (type.isArray()) {
+        if (!type.getComponentType().isPrimitive()) {
+          for (int i = Array.getLength(obj) - 1; i >= 0; i--) {
+            Object ref = Array.get(obj, i);
+            if (ref != null) {
+              todo.push(ref);
+              inValue.push(value);
+            } // if
+          } // for
+        } // if
+      } else if (obj instanceof String) {
+        bytes += stringArrayBytes((String) obj);
+      } else {
+        Field[] refs = REFS.get(type);
+        if (refs == null) {
+          result.complete = false;
+        } else {
+          for (Field field : refs) {
+            Object ref;
+            try {
+              ref = field.get(obj);
+            } catch (IllegalAccessException e) {
+              throw new IllegalStateException(e);
+            } // try/catch
+            if (ref != null) {
+              todo.push(ref);
+              inValue.push(value);
+            } // if
+          } // for
+        } // if/else
+      } // if/else
+      result.bytes += bytes;
+      if (value) {
+        result.valueBytes += bytes;
+      } // if
+    } // while
+    return result;
+  } // retainedSize(Object, Set<Object>)
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Round bytes up to the object alignment.
+   */
+  static long align(long bytes) {
+    return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+  } // align(long)
+
+  /**
+   * The size of a field or array element of the given type.
+   */
+  static int typeBytes(Class<?> type) {
+    if (!type.isPrimitive()) {
+      return REF_BYTES;
+    } else if (type == long.class || type == double.class) {
+      return 8;
+    } else if (type == int.class || type == float.class) {
+      return 4;
+    } else if (type == short.class || type == char.class) {
+      return 2;
+    } else {
+      return 1;
+    } // if/else
+  } // typeBytes(Class<?>)
+
+  /**
+   * The size of the array behind a String, which is stored with one
+   * byte per char when every char fits in one (compact strings) and
+   * two otherwise.
+   */
+  static long stringArrayBytes(String str) {
+    int width = 1;
+    for (int i = 0; i < str.length() && width == 1; i++) {
+      if (str.charAt(i) > 0xFF) {
+        width = 2;
+      } // if
+    } // for
+    return align(ARRAY_HEADER_BYTES + (long) width * str.length());
+  } // stringArrayBytes(String)
+
+  /**
+   * Read a VM option, or use the fallback if the VM does not have it.
+   */
+  static String vmFlag(HotSpotDiagnosticMXBean vm, String name,
+      String fallback) {
+    try {
+      return vm.getVMOption(name).getValue();
+    } catch (IllegalArgumentException e) {
+      return fallback;
+    } // try/catch
+  } // vmFlag(HotSpotDiagnosticMXBean, String, String)
+
+  // +---------------+-----------------------------------------------
+  // | Inner classes |
+  // +---------------+
+
+  /**
+   * A retained size.
+   */
+  public static class Result {
+    /**
+     * The total number of bytes.
+     */
+    public long bytes;
+
+    /**
+     * The number of those bytes taken by values.
+     */
+    public long valueBytes;
+
+    /**
+     * Whether we could follow every reference.
+     */
+    public boolean complete = true;
+  } // class Result
+} // class Footprint
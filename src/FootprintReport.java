@@ -0,0 +1,205 @@
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Reports the heap footprint of each kind of list holding n distinct
+ * Integers, as estimated by Footprint.
+ *
+ * For each list and size we print the shallow size of the list object,
+ * its retained size, the retained bytes per element, and the overhead
+ * per element (the retained bytes not taken by the Integers themselves).
+ * OffHeapCDLL also reports the bytes it holds outside the heap.
+ *
+ * java.util's lists cannot be walked unless the VM is run with
+ * --add-opens java.base/java.util=ALL-UNNAMED; without it, their rows
+ * are computed from a model of their layout and marked with "*".  Rows
+ * marked "~" could not follow a few references inside java.base (e.g.,
+ * the Random of a skip index) and are slightly low.
+ *
+ * To catch regressions, give one or more budgets of overhead bytes per
+ * element; if any list exceeds its budget at any size, we exit with
+ * status 1.
+ *
+ * Usage: java FootprintReport [--budget NAME=BYTES ...] [size ...]
+ */
+public class FootprintReport {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The list sizes used when none are given on the command line.
+   */
+  static final int[] DEFAULT_SIZES = {0, 1_000, 100_000};
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    Map<String, Double> budgets = new HashMap<String, Double>();
+    List<Integer> sizeList = new ArrayList<Integer>();
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("--budget") && i + 1 < args.length) {
+        String[] parts = args[++i].split("=");
+        budgets.put(parts[0], Double.parseDouble(parts[1]));
+      } else {
+        sizeList.add(Integer.parseInt(args[i]));
+      } // if/else
+    } // for
+    int[] sizes = DEFAULT_SIZES;
+    if (!sizeList.isEmpty()) {
+      sizes = new int[sizeList.size()];
+      for (int i = 0; i < sizes.length; i++) {
+        sizes[i] = sizeList.get(i);
+      } // for
+    } // if
+
+    Map<String, Supplier<Object>> lists = lists();
+    pen.printf("Header %d B, reference %d B, alignment %d B%n",
+        Footprint.HEADER_BYTES, Footprint.REF_BYTES, Footprint.ALIGNMENT);
+    pen.printf("%-18s %10s %10s %14s %10s %12s %12s%n", "List", "Size",
+        "Shallow B", "Retained B", "B/elem", "Overhead/el", "Off-heap B");
+    boolean over = false;
+    for (int size : sizes) {
+      Integer[] values = values(size);
+      for (Map.Entry<String, Supplier<Object>> entry : lists.entrySet()) {
+        String name = entry.getKey();
+        Object lst = entry.getValue().get();
+        fill(lst, values);
+        double overhead = report(pen, name, lst, values);
+        Double budget = budgets.get(name);
+        if (budget != null && size > 0 && overhead > budget) {
+          pen.printf("%s is over budget at size %d: %.2f > %.2f bytes per "
+              + "element%n", name, size, overhead, budget);
+          over = true;
+        } // if
+        if (lst instanceof OffHeapCDLL) {
+          ((OffHeapCDLL<?>) lst).close();
+        } // if
+      } // for entry
+    } // for size
+    if (over) {
+      System.exit(1);
+    } // if
+  } // main(String[])
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * The lists we report on, by name.
+   */
+  static Map<String, Supplier<Object>> lists() {
+    Map<String, Supplier<Object>> lists =
+        new LinkedHashMap<String, Supplier<Object>>();
+    lists.put("SimpleDLL", () -> new SimpleDLL<Integer>());
+    lists.put("SimpleCDLL", () -> new SimpleCDLL<Integer>());
+    lists.put("SimpleCDLL+index", () -> {
+      SimpleCDLL<Integer> lst = new SimpleCDLL<Integer>();
+      lst.enableIndex();
+      return lst;
+    });
+    lists.put("SimpleUCDLL", () -> new SimpleUCDLL<Integer>());
+    lists.put("SimpleICDLL", () -> new SimpleICDLL<Integer>());
+    lists.put("IntCDLL", () -> new IntCDLL());
+    lists.put("OffHeapCDLL", () -> new OffHeapCDLL<Integer>(RecordCodec.INT));
+    lists.put("LinkedList", () -> new LinkedList<Integer>());
+    lists.put("ArrayList", () -> new ArrayList<Integer>());
+    return lists;
+  } // lists()
+
+  /**
+   * Make n distinct Integers.  (Integer.valueOf would share the small
+   * ones.)
+   */
+  @SuppressWarnings("removal")
+  static Integer[] values(int n) {
+    Integer[] values = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      values[i] = new Integer(i);
+    } // for
+    return values;
+  } // values(int)
+
+  /**
+   * Add the values to lst, which is a SimpleList or a java.util.List.
+   */
+  @SuppressWarnings("unchecked")
+  static void fill(Object lst, Integer[] values) {
+    if (lst instanceof List) {
+      Collections.addAll((List<Integer>) lst, values);
+    } else {
+      ListIterator<Integer> lit = ((SimpleList<Integer>) lst).listIterator();
+      for (Integer val : values) {
+        lit.add(val);
+      } // for
+    } // if/else
+  } // fill(Object, Integer[])
+
+  /**
+   * Print one row of the table.  Returns the overhead per element.
+   */
+  static double report(PrintWriter pen, String name, Object lst,
+      Integer[] values) throws Exception {
+    Set<Object> valueSet = Collections.newSetFromMap(
+        new IdentityHashMap<Object, Boolean>());
+    Collections.addAll(valueSet, values);
+    Footprint.Result result = Footprint.retainedSize(lst, valueSet);
+    String mark = result.complete ? "" : "~";
+    if (!result.complete && lst instanceof List) {
+      result = model((List<?>) lst, values);
+      mark = "*";
+    } // if
+
+    int n = values.length;
+    long offHeap = (lst instanceof OffHeapCDLL)
+        ? ((OffHeapCDLL<?>) lst).offHeapBytes() : 0;
+    double perElement = (n == 0) ? 0 : (double) result.bytes / n;
+    double overhead = (n == 0) ? 0
+        : (double) (result.bytes - result.valueBytes) / n;
+    pen.printf("%-18s %10d %10d %14s %10.2f %12.2f %12d%n", name, n,
+        Footprint.shallowSize(lst), result.bytes + mark, perElement,
+        overhead, offHeap);
+    return overhead;
+  } // report(PrintWriter, String, Object, Integer[])
+
+  /**
+   * Estimate the retained size of a LinkedList or ArrayList filled by
+   * adding the values one at a time, from the sizes of its classes.
+   */
+  static Footprint.Result model(List<?> lst, Integer[] values)
+      throws ClassNotFoundException {
+    Footprint.Result result = new Footprint.Result();
+    for (Integer val : values) {
+      result.valueBytes += Footprint.shallowSize(val);
+    } // for
+    int n = values.length;
+    long structure = Footprint.shallowSize(lst);
+    if (lst instanceof LinkedList) {
+      structure += n * Footprint.shallowSize(
+          Class.forName("java.util.LinkedList$Node"));
+    } else if (n > 0) {
+      // An ArrayList starts with room for 10 and grows by half
+      int capacity = 10;
+      while (capacity < n) {
+        capacity += capacity >> 1;
+      } // while
+      structure += Footprint.arrayBytes(Object.class, capacity);
+    } // if/else
+    result.bytes = structure + result.valueBytes;
+    return result;
+  } // model(List<?>, Integer[])
+} // class FootprintReport
@@ -0,0 +1,243 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Circularly-linked, doubly-linked lists of ints with a dummy node.
+ *
+ * This is SimpleCDLL specialized to ints: values are stored unboxed in
+ * the nodes, and the iterators offer nextInt, previousInt, add(int) and
+ * set(int), none of which allocate anything but the new node in add.
+ *
+ * This list supports the Fail Fast policy.
+ */
+public class IntCDLL implements SimpleList<Integer> {
+  // +--------+------------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The number of values in the list.
+   */
+  int size;
+
+  /**
+   * A dummy node precedes the front node and follows the back node.
+   */
+  IntNode2 dummy;
+
+  /**
+   * To support fail fast, we keep track of the number of changes that have
+   * been made to this list.
+   */
+  long numChanges;
+
+  // +--------------+------------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create an empty list.
+   */
+  public IntCDLL() {
+    this.size = 0;
+    this.dummy = new IntNode2(0);
+    this.numChanges = 0;
+
+    this.dummy.next = this.dummy;
+    this.dummy.prev = this.dummy;
+  } // IntCDLL()
+
+  // +-----------+---------------------------------------------------------
+  // | Iterators |
+  // +-----------+
+
+  public Iterator<Integer> iterator() {
+    return listIterator();
+  } // iterator()
+
+  public IntListIterator listIterator() {
+    return new IntListIterator() {
+      // +--------+--------------------------------------------------------
+      // | Fields |
+      // +--------+
+
+      /**
+       * The position in the list of the next value to be returned.
+       */
+      int pos = 0;
+
+      /**
+       * The cursor is between neighboring values, so we start links
+       * to the previous and next value.
+       */
+      IntNode2 prev = IntCDLL.this.dummy;
+      IntNode2 next = IntCDLL.this.dummy.next;
+
+      /**
+       * The node to be updated by remove or set.  Has a value of
+       * null when there is no such value.
+       */
+      IntNode2 update = null;
+
+      /**
+       * The number of changes of the IntCDLL at the time of this
+       * iterator object's creation, or when this iterator last mutated
+       * the IntCDLL.
+       */
+      long numChanges = IntCDLL.this.numChanges;
+
+      // +-------------+---------------------------------------------------
+      // | Int Methods |
+      // +-------------+
+
+      public void add(int val) {
+        checkConcurrentModification();
+
+        // Add a node
+        this.prev = this.prev.insertAfter(val);
+
+        // Note that we cannot update
+        this.update = null;
+
+        ++IntCDLL.this.size;
+        ++this.pos;
+        incrementNumChanges();
+      } // add(int)
+
+      public int nextInt() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        } // if
+        // Identify the node to update
+        this.update = this.next;
+        // Advance the cursor
+        this.prev = this.next;
+        this.next = this.next.next;
+        // Note the movement
+        ++this.pos;
+        // And return the value
+        return this.update.value;
+      } // nextInt()
+
+      public int previousInt() {
+        if (!this.hasPrevious()) {
+          throw new NoSuchElementException();
+        } // if
+        // Identify the node to update
+        this.update = this.prev;
+        // Advance the cursor
+        this.next = this.prev;
+        this.prev = this.prev.prev;
+        // Note the movement
+        --this.pos;
+        // And return the value
+        return this.update.value;
+      } // previousInt()
+
+      public void set(int val) {
+        checkConcurrentModification();
+        // Sanity check
+        if (this.update == null) {
+          throw new IllegalStateException();
+        } // if
+        // Do the real work
+        this.update.value = val;
+        // Note that no more updates are possible
+        this.update = null;
+      } // set(int)
+
+      // +---------+-------------------------------------------------------
+      // | Methods |
+      // +---------+
+
+      public void add(Integer val) {
+        this.add(val.intValue());
+      } // add(Integer)
+
+      public boolean hasNext() {
+        checkConcurrentModification();
+        return (this.pos < IntCDLL.this.size);
+      } // hasNext()
+
+      public boolean hasPrevious() {
+        checkConcurrentModification();
+        return (this.pos > 0);
+      } // hasPrevious()
+
+      public Integer next() {
+        return this.nextInt();
+      } // next()
+
+      public int nextIndex() {
+        checkConcurrentModification();
+        return this.pos;
+      } // nextIndex()
+
+      public int previousIndex() {
+        checkConcurrentModification();
+        return this.pos - 1;
+      } // prevIndex
+
+      public Integer previous() {
+        return this.previousInt();
+      } // previous()
+
+      public void remove() {
+        // Sanity check
+        checkConcurrentModification();
+        if (this.update == null) {
+          throw new IllegalStateException();
+        } // if
+
+        // Update the cursor
+        if (this.next == this.update) {
+          this.next = this.update.next;
+        } // if
+        if (this.prev == this.update) {
+          this.prev = this.update.prev;
+          --this.pos;
+        } // if
+
+        // Do the real work
+        this.update.remove();
+        --IntCDLL.this.size;
+
+        // Note that no more updates are possible
+        this.update = null;
+
+        incrementNumChanges();
+      } // remove()
+
+      public void set(Integer val) {
+        this.set(val.intValue());
+      } // set(Integer)
+
+      // +----------------+------------------------------------------------
+      // | Helper Methods |
+      // +----------------+
+
+      /**
+       * Check if list has not been changed by other iterators. This
+       * implements the "fail fast" strategy.
+       *
+       * @throws ConcurrentModificationException if other iterators have
+       *   modified list.
+       */
+      void checkConcurrentModification() {
+        if (this.numChanges != IntCDLL.this.numChanges) {
+          throw new ConcurrentModificationException();
+        } // if
+      } // checkConcurrentModification()
+
+      /**
+       * Increment `this.numChanges` and `IntCDLL.this.numChanges` by 1.
+       */
+      void incrementNumChanges() {
+        this.numChanges++;
+        IntCDLL.this.numChanges++;
+      } // incrementNumChanges()
+    };
+  } // listIterator()
+
+} // class IntCDLL
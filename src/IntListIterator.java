@@ -0,0 +1,28 @@
+import java.util.ListIterator;
+
+/**
+ * List iterators over ints.  The int methods neither box nor unbox; the
+ * Integer methods inherited from ListIterator remain for compatibility.
+ */
+public interface IntListIterator extends ListIterator<Integer> {
+  /**
+   * Return the next value, as next() does, without boxing it.
+   */
+  public int nextInt();
+
+  /**
+   * Return the previous value, as previous() does, without boxing it.
+   */
+  public int previousInt();
+
+  /**
+   * Add a value, as add(Integer) does, without boxing it.
+   */
+  public void add(int val);
+
+  /**
+   * Replace the last value returned, as set(Integer) does, without
+   * boxing it.
+   */
+  public void set(int val);
+} // interface IntListIterator
@@ -0,0 +1,75 @@
+/**
+ * Nodes for doubly-linked structures of ints.  Like Node2, but the value
+ * is stored unboxed.
+ */
+public class IntNode2 {
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The previous node.
+   */
+  IntNode2 prev;
+
+  /**
+   * The stored value.
+   */
+  int value;
+
+  /**
+   * The next node.
+   */
+  IntNode2 next;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create a new node.
+   */
+  public IntNode2(IntNode2 prev, int value, IntNode2 next) {
+    this.prev = prev;
+    this.value = value;
+    this.next = next;
+  } // IntNode2(IntNode2, int, IntNode2)
+
+  /**
+   * Create a new node with no links.
+   */
+  public IntNode2(int value) {
+    this(null, value, null);
+  } // IntNode2(int)
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Insert a new value after this node.  Returns the new node.
+   */
+  IntNode2 insertAfter(int value) {
+    IntNode2 tmp = new IntNode2(this, value, this.next);
+    if (this.next != null) {
+      this.next.prev = tmp;
+    } // if
+    this.next = tmp;
+    return tmp;
+  } // insertAfter
+
+  /**
+   * Remove this node.
+   */
+  void remove() {
+    if (this.prev != null) {
+      this.prev.next = this.next;
+    } // if
+    if (this.next != null) {
+      this.next.prev = this.prev;
+    } // if
+    this.prev = null;
+    this.next = null;
+  } // remove()
+
+} // IntNode2
@@ -0,0 +1,23 @@
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * A SimpleList view of a java.util.List, so that the standard lists can
+ * be run through the same benchmarks.
+ */
+class JavaList<T> implements SimpleList<T> {
+  List<T> list;
+
+  JavaList(List<T> list) {
+    this.list = list;
+  } // JavaList(List<T>)
+
+  public Iterator<T> iterator() {
+    return this.list.iterator();
+  } // iterator()
+
+  public ListIterator<T> listIterator() {
+    return this.list.listIterator();
+  } // listIterator()
+} // class JavaList<T>
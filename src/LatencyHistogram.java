@@ -0,0 +1,176 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies, in nanoseconds, that many threads may record
+ * into at once.
+ *
+ * Latencies are counted in buckets whose widths grow with their values:
+ * each power of two is split into SUB_BUCKETS equal buckets, so a
+ * percentile is accurate to within 1 / SUB_BUCKETS (12.5%) of its value.
+ * Recording takes constant time and does not allocate.
+ */
+public class LatencyHistogram {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The number of bits of each latency, after its leading one, that pick
+   * its bucket within its power of two.
+   */
+  static final int SUB_BUCKET_BITS = 3;
+
+  /**
+   * The number of buckets per power of two.
+   */
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * The number of buckets.
+   */
+  static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The number of latencies in each bucket.
+   */
+  AtomicLongArray counts;
+
+  /**
+   * The number of latencies recorded, and their total.
+   */
+  LongAdder count;
+  LongAdder total;
+
+  /**
+   * The largest latency recorded.
+   */
+  LongAccumulator max;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create an empty histogram.
+   */
+  public LatencyHistogram() {
+    this.counts = new AtomicLongArray(BUCKETS);
+    this.count = new LongAdder();
+    this.total = new LongAdder();
+    this.max = new LongAccumulator(Math::max, 0);
+  } // LatencyHistogram()
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Record a latency.  Negative latencies count as zero.
+   */
+  public void record(long nanos) {
+    nanos = Math.max(0, nanos);
+    this.counts.incrementAndGet(bucket(nanos));
+    this.count.increment();
+    this.total.add(nanos);
+    this.max.accumulate(nanos);
+  } // record(long)
+
+  /**
+   * Record the time since start, a value of System.nanoTime().
+   */
+  public void recordSince(long start) {
+    record(System.nanoTime() - start);
+  } // recordSince(long)
+
+  /**
+   * The number of latencies recorded.
+   */
+  public long count() {
+    return this.count.sum();
+  } // count()
+
+  /**
+   * The mean latency, or 0 if none have been recorded.
+   */
+  public double mean() {
+    long n = this.count.sum();
+    return (n == 0) ? 0 : (double) this.total.sum() / n;
+  } // mean()
+
+  /**
+   * The largest latency recorded.
+   */
+  public long max() {
+    return this.max.get();
+  } // max()
+
+  /**
+   * An estimate of the latency below which the fraction p of latencies
+   * fall, where 0 <= p <= 1.  This is the upper end of the bucket that
+   * holds that latency (but no more than the maximum).
+   */
+  public long percentile(double p) {
+    long n = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      n += this.counts.get(i);
+    } // for
+    long rank = (long) Math.ceil(p * n);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += this.counts.get(i);
+      if (seen > 0 && seen >= rank) {
+        return Math.min(upperBound(i), max());
+      } // if
+    } // for
+    return 0;
+  } // percentile(double)
+
+  /**
+   * Forget every latency recorded.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      this.counts.set(i, 0);
+    } // for
+    this.count.reset();
+    this.total.reset();
+    this.max.reset();
+  } // reset()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * The bucket for a latency.  Latencies below SUB_BUCKETS get a bucket
+   * each; above that, the position of the leading one picks a group of
+   * SUB_BUCKETS buckets and the following bits pick one of them.
+   */
+  static int bucket(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    } // if
+    int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+    int sub = (int) (nanos >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + sub;
+  } // bucket(long)
+
+  /**
+   * The largest latency in a bucket.
+   */
+  static long upperBound(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    } // if
+    int shift = bucket / SUB_BUCKETS - 1;
+    long sub = bucket % SUB_BUCKETS;
+    long lowest = (SUB_BUCKETS + sub) << shift;
+    return lowest + (1L << shift) - 1;
+  } // upperBound(int)
+} // class LatencyHistogram
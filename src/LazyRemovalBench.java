@@ -0,0 +1,116 @@
+import java.io.PrintWriter;
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.Random;
+
+/**
+ * Compares removal with several cursors in a SimpleCDLL with and without
+ * lazy removal, as in SimpleListExpt.randomWalkRemove but with the
+ * cursors taking turns.
+ *
+ * Each turn, a cursor takes a five-step random walk and removes the
+ * value it ends on.  Without lazy removal, that invalidates every other
+ * cursor, so a cursor whose turn comes after another's removal must be
+ * replaced by a new one at its old index, as a client would have to;
+ * with lazy removal, the cursors stay valid.  We report turns per second
+ * and the latency percentiles of turns.
+ *
+ * Usage: java LazyRemovalBench [size [cursors]]
+ */
+public class LazyRemovalBench {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The number of unmeasured runs before we measure.
+   */
+  static final int WARMUP_ROUNDS = 3;
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    int size = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+    int cursors = (args.length > 1) ? Integer.parseInt(args[1]) : 4;
+
+    pen.printf("%-18s %8s %14s %8s %8s %8s %10s %10s%n", "List", "Cursors",
+        "turns/s", "p50 ns", "p99 ns", "p99.9 ns", "max ns", "reseeks");
+    for (boolean lazy : new boolean[] {false, true}) {
+      for (int round = 0; round < WARMUP_ROUNDS; round++) {
+        run(size, cursors, lazy, new LatencyHistogram());
+      } // for
+      LatencyHistogram latencies = new LatencyHistogram();
+      long start = System.nanoTime();
+      long reseeks = run(size, cursors, lazy, latencies);
+      long nanos = System.nanoTime() - start;
+      pen.printf("%-18s %8d %14.0f %8d %8d %8d %10d %10d%n",
+          lazy ? "SimpleCDLL+lazy" : "SimpleCDLL", cursors,
+          latencies.count() * 1e9 / nanos, latencies.percentile(0.5),
+          latencies.percentile(0.99), latencies.percentile(0.999),
+          latencies.max(), reseeks);
+    } // for lazy
+  } // main(String[])
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Fill a list with size values and remove half of them with the given
+   * number of cursors, timing each turn into latencies.  Returns the
+   * number of cursors that had to be replaced.
+   */
+  @SuppressWarnings("unchecked")
+  static long run(int size, int cursors, boolean lazy,
+      LatencyHistogram latencies) {
+    SimpleCDLL<Integer> lst = new SimpleCDLL<Integer>();
+    if (lazy) {
+      lst.enableLazyRemoval();
+    } // if
+    ListIterator<Integer> fill = lst.listIterator();
+    for (int i = 0; i < size; i++) {
+      fill.add(i);
+    } // for
+
+    // Spread the cursors out
+    ListIterator<Integer>[] lits =
+        (ListIterator<Integer>[]) new ListIterator<?>[cursors];
+    int[] indices = new int[cursors];
+    for (int c = 0; c < cursors; c++) {
+      indices[c] = (int) ((long) size * c / cursors);
+      lits[c] = lst.listIterator(indices[c]);
+    } // for
+
+    Random walk = new Random(SimpleListBench.SEED);
+    long reseeks = 0;
+    for (int turn = 0; turn < size / 2; turn++) {
+      int c = turn % cursors;
+      long start = System.nanoTime();
+      ListIterator<Integer> lit = lits[c];
+      try {
+        lit.hasNext();
+      } catch (ConcurrentModificationException e) {
+        lit = lits[c] = lst.listIterator(Math.min(indices[c], lst.size));
+        ++reseeks;
+      } // try/catch
+      for (int j = 0; j < 5; j++) {
+        if (!lit.hasNext() || (lit.hasPrevious() && walk.nextBoolean())) {
+          lit.previous();
+        } else {
+          lit.next();
+        } // if/else
+      } // for j
+      lit.remove();
+      // Remember where we are, in case we must start over.  (With lazy
+      // removal we never do, and asking would cost a recount.)
+      if (!lazy) {
+        indices[c] = lit.nextIndex();
+      } // if
+      latencies.recordSince(start);
+    } // for turn
+    return reseeks;
+  } // run(int, int, boolean, LatencyHistogram)
+} // class LazyRemovalBench
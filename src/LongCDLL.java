@@ -0,0 +1,243 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Circularly-linked, doubly-linked lists of longs with a dummy node.
+ *
+ * This is SimpleCDLL specialized to longs: values are stored unboxed in
+ * the nodes, and the iterators offer nextLong, previousLong, add(long) and
+ * set(long), none of which allocate anything but the new node in add.
+ *
+ * This list supports the Fail Fast policy.
+ */
+public class LongCDLL implements SimpleList<Long> {
+  // +--------+------------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The number of values in the list.
+   */
+  int size;
+
+  /**
+   * A dummy node precedes the front node and follows the back node.
+   */
+  LongNode2 dummy;
+
+  /**
+   * To support fail fast, we keep track of the number of changes that have
+   * been made to this list.
+   */
+  long numChanges;
+
+  // +--------------+------------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create an empty list.
+   */
+  public LongCDLL() {
+    this.size = 0;
+    this.dummy = new LongNode2(0);
+    this.numChanges = 0;
+
+    this.dummy.next = this.dummy;
+    this.dummy.prev = this.dummy;
+  } // LongCDLL()
+
+  // +-----------+---------------------------------------------------------
+  // | Iterators |
+  // +-----------+
+
+  public Iterator<Long> iterator() {
+    return listIterator();
+  } // iterator()
+
+  public LongListIterator listIterator() {
+    return new LongListIterator() {
+      // +--------+--------------------------------------------------------
+      // | Fields |
+      // +--------+
+
+      /**
+       * The position in the list of the next value to be returned.
+       */
+      int pos = 0;
+
+      /**
+       * The cursor is between neighboring values, so we start links
+       * to the previous and next value.
+       */
+      LongNode2 prev = LongCDLL.this.dummy;
+      LongNode2 next = LongCDLL.this.dummy.next;
+
+      /**
+       * The node to be updated by remove or set.  Has a value of
+       * null when there is no such value.
+       */
+      LongNode2 update = null;
+
+      /**
+       * The number of changes of the LongCDLL at the time of this
+       * iterator object's creation, or when this iterator last mutated
+       * the LongCDLL.
+       */
+      long numChanges = LongCDLL.this.numChanges;
+
+      // +-------------+---------------------------------------------------
+      // | Long Methods |
+      // +-------------+
+
+      public void add(long val) {
+        checkConcurrentModification();
+
+        // Add a node
+        this.prev = this.prev.insertAfter(val);
+
+        // Note that we cannot update
+        this.update = null;
+
+        ++LongCDLL.this.size;
+        ++this.pos;
+        incrementNumChanges();
+      } // add(long)
+
+      public long nextLong() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        } // if
+        // Identify the node to update
+        this.update = this.next;
+        // Advance the cursor
+        this.prev = this.next;
+        this.next = this.next.next;
+        // Note the movement
+        ++this.pos;
+        // And return the value
+        return this.update.value;
+      } // nextLong()
+
+      public long previousLong() {
+        if (!this.hasPrevious()) {
+          throw new NoSuchElementException();
+        } // if
+        // Identify the node to update
+        this.update = this.prev;
+        // Advance the cursor
+        this.next = this.prev;
+        this.prev = this.prev.prev;
+        // Note the movement
+        --this.pos;
+        // And return the value
+        return this.update.value;
+      } // previousLong()
+
+      public void set(long val) {
+        checkConcurrentModification();
+        // Sanity check
+        if (this.update == null) {
+          throw new IllegalStateException();
+        } // if
+        // Do the real work
+        this.update.value = val;
+        // Note that no more updates are possible
+        this.update = null;
+      } // set(long)
+
+      // +---------+-------------------------------------------------------
+      // | Methods |
+      // +---------+
+
+      public void add(Long val) {
+        this.add(val.longValue());
+      } // add(Long)
+
+      public boolean hasNext() {
+        checkConcurrentModification();
+        return (this.pos < LongCDLL.this.size);
+      } // hasNext()
+
+      public boolean hasPrevious() {
+        checkConcurrentModification();
+        return (this.pos > 0);
+      } // hasPrevious()
+
+      public Long next() {
+        return this.nextLong();
+      } // next()
+
+      public int nextIndex() {
+        checkConcurrentModification();
+        return this.pos;
+      } // nextIndex()
+
+      public int previousIndex() {
+        checkConcurrentModification();
+        return this.pos - 1;
+      } // prevIndex
+
+      public Long previous() {
+        return this.previousLong();
+      } // previous()
+
+      public void remove() {
+        // Sanity check
+        checkConcurrentModification();
+        if (this.update == null) {
+          throw new IllegalStateException();
+        } // if
+
+        // Update the cursor
+        if (this.next == this.update) {
+          this.next = this.update.next;
+        } // if
+        if (this.prev == this.update) {
+          this.prev = this.update.prev;
+          --this.pos;
+        } // if
+
+        // Do the real work
+        this.update.remove();
+        --LongCDLL.this.size;
+
+        // Note that no more updates are possible
+        this.update = null;
+
+        incrementNumChanges();
+      } // remove()
+
+      public void set(Long val) {
+        this.set(val.longValue());
+      } // set(Long)
+
+      // +----------------+------------------------------------------------
+      // | Helper Methods |
+      // +----------------+
+
+      /**
+       * Check if list has not been changed by other iterators. This
+       * implements the "fail fast" strategy.
+       *
+       * @throws ConcurrentModificationException if other iterators have
+       *   modified list.
+       */
+      void checkConcurrentModification() {
+        if (this.numChanges != LongCDLL.this.numChanges) {
+          throw new ConcurrentModificationException();
+        } // if
+      } // checkConcurrentModification()
+
+      /**
+       * Increment `this.numChanges` and `LongCDLL.this.numChanges` by 1.
+       */
+      void incrementNumChanges() {
+        this.numChanges++;
+        LongCDLL.this.numChanges++;
+      } // incrementNumChanges()
+    };
+  } // listIterator()
+
+} // class LongCDLL
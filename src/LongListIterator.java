@@ -0,0 +1,28 @@
+import java.util.ListIterator;
+
+/**
+ * List iterators over longs.  The long methods neither box nor unbox; the
+ * Long methods inherited from ListIterator remain for compatibility.
+ */
+public interface LongListIterator extends ListIterator<Long> {
+  /**
+   * Return the next value, as next() does, without boxing it.
+   */
+  public long nextLong();
+
+  /**
+   * Return the previous value, as previous() does, without boxing it.
+   */
+  public long previousLong();
+
+  /**
+   * Add a value, as add(Long) does, without boxing it.
+   */
+  public void add(long val);
+
+  /**
+   * Replace the last value returned, as set(Long) does, without
+   * boxing it.
+   */
+  public void set(long val);
+} // interface LongListIterator
@@ -0,0 +1,75 @@
+/**
+ * Nodes for doubly-linked structures of longs.  Like Node2, but the value
+ * is stored unboxed.
+ */
+public class LongNode2 {
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The previous node.
+   */
+  LongNode2 prev;
+
+  /**
+   * The stored value.
+   */
+  long value;
+
+  /**
+   * The next node.
+   */
+  LongNode2 next;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create a new node.
+   */
+  public LongNode2(LongNode2 prev, long value, LongNode2 next) {
+    this.prev = prev;
+    this.value = value;
+    this.next = next;
+  } // LongNode2(LongNode2, long, LongNode2)
+
+  /**
+   * Create a new node with no links.
+   */
+  public LongNode2(long value) {
+    this(null, value, null);
+  } // LongNode2(long)
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Insert a new value after this node.  Returns the new node.
+   */
+  LongNode2 insertAfter(long value) {
+    LongNode2 tmp = new LongNode2(this, value, this.next);
+    if (this.next != null) {
+      this.next.prev = tmp;
+    } // if
+    this.next = tmp;
+    return tmp;
+  } // insertAfter
+
+  /**
+   * Remove this node.
+   */
+  void remove() {
+    if (this.prev != null) {
+      this.prev.next = this.next;
+    } // if
+    if (this.next != null) {
+      this.next.prev = this.prev;
+    } // if
+    this.prev = null;
+    this.next = null;
+  } // remove()
+
+} // LongNode2
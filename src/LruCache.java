@@ -0,0 +1,173 @@
+import java.util.HashMap;
+
+/**
+ * A bounded cache that evicts the least recently used entry when it is
+ * full.
+ *
+ * The entries are kept in a SimpleCDLL in order of use, most recent
+ * first, and a hash map takes each key to the handle of its entry, so
+ * get and put take expected constant time.  A hit only moves a node to
+ * the front of the list and does not allocate.
+ *
+ * Not safe for use by several threads at once.
+ */
+public class LruCache<K, V> {
+  // +--------+------------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The most entries the cache holds.
+   */
+  int capacity;
+
+  /**
+   * The entries, most recently used first.  The list keeps one node for
+   * reuse, so an eviction followed by an insertion reuses the node.
+   */
+  SimpleCDLL<Entry<K, V>> order;
+
+  /**
+   * The handle of each key's entry.
+   */
+  HashMap<K, Node2<Entry<K, V>>> handles;
+
+  /**
+   * The number of gets that found their key.
+   */
+  long hits;
+
+  /**
+   * The number of gets that did not find their key.
+   */
+  long misses;
+
+  /**
+   * The number of entries evicted to make room for others.
+   */
+  long evictions;
+
+  // +--------------+------------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create an empty cache that holds at most capacity entries.
+   *
+   * @throws IllegalArgumentException if capacity is not positive.
+   */
+  public LruCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    } // if
+    this.capacity = capacity;
+    this.order = new SimpleCDLL<Entry<K, V>>(1);
+    this.handles = new HashMap<K, Node2<Entry<K, V>>>();
+  } // LruCache(int)
+
+  // +---------+-----------------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Get the value for key, or null if the cache has none, and note that
+   * key has been used.
+   */
+  public V get(K key) {
+    Node2<Entry<K, V>> handle = this.handles.get(key);
+    if (handle == null) {
+      ++this.misses;
+      return null;
+    } // if
+    ++this.hits;
+    this.order.moveToFront(handle);
+    return handle.value.value;
+  } // get(K)
+
+  /**
+   * Set the value for key and note that key has been used, evicting the
+   * least recently used entry if the cache is full.  Returns the old
+   * value for key, or null if there was none.
+   */
+  public V put(K key, V value) {
+    Node2<Entry<K, V>> handle = this.handles.get(key);
+    if (handle != null) {
+      V old = handle.value.value;
+      handle.value.value = value;
+      this.order.moveToFront(handle);
+      return old;
+    } // if
+
+    if (this.order.size >= this.capacity) {
+      Entry<K, V> eldest = this.order.remove(this.order.lastHandle());
+      this.handles.remove(eldest.key);
+      ++this.evictions;
+    } // if
+    this.handles.put(key, this.order.addFirst(new Entry<K, V>(key, value)));
+    return null;
+  } // put(K, V)
+
+  /**
+   * Remove the entry for key.  Returns its value, or null if there was
+   * none.
+   */
+  public V remove(K key) {
+    Node2<Entry<K, V>> handle = this.handles.remove(key);
+    if (handle == null) {
+      return null;
+    } // if
+    return this.order.remove(handle).value;
+  } // remove(K)
+
+  /**
+   * The number of entries in the cache.
+   */
+  public int size() {
+    return this.order.size;
+  } // size()
+
+  /**
+   * The most entries the cache holds.
+   */
+  public int capacity() {
+    return this.capacity;
+  } // capacity()
+
+  /**
+   * The number of gets that found their key.
+   */
+  public long hits() {
+    return this.hits;
+  } // hits()
+
+  /**
+   * The number of gets that did not find their key.
+   */
+  public long misses() {
+    return this.misses;
+  } // misses()
+
+  /**
+   * The number of entries evicted to make room for others.
+   */
+  public long evictions() {
+    return this.evictions;
+  } // evictions()
+
+  // +---------------+-----------------------------------------------------
+  // | Inner Classes |
+  // +---------------+
+
+  /**
+   * A key and its value.
+   */
+  static class Entry<K, V> {
+    K key;
+    V value;
+
+    Entry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    } // Entry(K, V)
+  } // class Entry<K, V>
+} // class LruCache<K, V>
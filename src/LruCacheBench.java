@@ -0,0 +1,161 @@
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares LruCache with a LinkedHashMap in access order that removes its
+ * eldest entry when full, the usual way to build an LRU cache in Java.
+ *
+ * Each operation is a get, followed by a put if the get missed.  Keys
+ * are skewed, with most operations going to a small set of hot keys.  In
+ * the "hits" workload every key fits in the cache; in the "mixed"
+ * workload there are four times as many keys as the cache holds.  We
+ * report operations per second, bytes allocated per operation (see
+ * SimpleListBench), and the hit rate.
+ *
+ * Usage: java LruCacheBench [capacity ...]
+ */
+public class LruCacheBench {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The capacities used when none are given on the command line.
+   */
+  static final int[] DEFAULT_CAPACITIES = {1_000, 100_000};
+
+  /**
+   * The number of operations per round.
+   */
+  static final int OPS_PER_ROUND = 1_000_000;
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    int[] capacities = DEFAULT_CAPACITIES;
+    if (args.length > 0) {
+      capacities = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        capacities[i] = Integer.parseInt(args[i]);
+      } // for
+    } // if
+
+    pen.printf("%-14s %-8s %10s %16s %10s %10s%n",
+        "Cache", "Workload", "Capacity", "ops/s", "B/op", "Hit rate");
+    for (int capacity : capacities) {
+      for (int keyspace : new int[] {capacity, 4 * capacity}) {
+        String workload = (keyspace == capacity) ? "hits" : "mixed";
+        Integer[] keys = keys(keyspace);
+
+        LruCache<Integer, Integer> lru = new LruCache<Integer, Integer>(capacity);
+        double[] result = measure(keys, new Cache() {
+          public Integer get(Integer key) {
+            return lru.get(key);
+          } // get(Integer)
+
+          public void put(Integer key, Integer value) {
+            lru.put(key, value);
+          } // put(Integer, Integer)
+        });
+        pen.printf("%-14s %-8s %10d %16.0f %10.2f %10.3f%n", "LruCache",
+            workload, capacity, result[0], result[1], result[2]);
+
+        Map<Integer, Integer> lhm = new LinkedHashMap<Integer, Integer>(16,
+            0.75f, true) {
+          protected boolean removeEldestEntry(Map.Entry<Integer, Integer> e) {
+            return size() > capacity;
+          } // removeEldestEntry(Map.Entry<Integer, Integer>)
+        };
+        result = measure(keys, new Cache() {
+          public Integer get(Integer key) {
+            return lhm.get(key);
+          } // get(Integer)
+
+          public void put(Integer key, Integer value) {
+            lhm.put(key, value);
+          } // put(Integer, Integer)
+        });
+        pen.printf("%-14s %-8s %10d %16.0f %10.2f %10.3f%n", "LinkedHashMap",
+            workload, capacity, result[0], result[1], result[2]);
+      } // for keyspace
+    } // for capacity
+  } // main(String[])
+
+  // +---------+-----------------------------------------------------
+  // | Harness |
+  // +---------+
+
+  /**
+   * Run the keys through the cache, returning the mean operations per
+   * second, bytes allocated per operation, and hit rate over the
+   * measured rounds.
+   */
+  static double[] measure(Integer[] keys, Cache cache) {
+    long probeBytes = SimpleListBench.probeBytes();
+    int rounds = SimpleListBench.WARMUP_ROUNDS
+        + SimpleListBench.MEASURED_ROUNDS;
+    double opsPerSec = 0;
+    double bytesPerOp = 0;
+    double hitRate = 0;
+    for (int round = 0; round < rounds; round++) {
+      long hits = 0;
+      long startBytes = SimpleListBench.allocatedBytes();
+      long start = System.nanoTime();
+      for (Integer key : keys) {
+        if (cache.get(key) != null) {
+          ++hits;
+        } else {
+          cache.put(key, key);
+        } // if/else
+      } // for
+      long nanos = System.nanoTime() - start;
+      long bytes = SimpleListBench.allocatedBytes() - startBytes - probeBytes;
+      if (round >= SimpleListBench.WARMUP_ROUNDS) {
+        opsPerSec += keys.length * 1e9 / Math.max(1, nanos);
+        bytesPerOp += (double) bytes / keys.length;
+        hitRate += (double) hits / keys.length;
+      } // if
+    } // for round
+    int measured = SimpleListBench.MEASURED_ROUNDS;
+    return new double[] {opsPerSec / measured, bytesPerOp / measured,
+        hitRate / measured};
+  } // measure(Integer[], Cache)
+
+  /**
+   * Choose the keys for one round.  Nine operations in ten go to the
+   * hottest tenth of the keys.  The keys are boxed up front so that
+   * boxing is not counted as allocation by the caches.
+   */
+  static Integer[] keys(int keyspace) {
+    Random random = new Random(SimpleListBench.SEED);
+    Integer[] boxed = new Integer[keyspace];
+    for (int i = 0; i < keyspace; i++) {
+      boxed[i] = Integer.valueOf(i);
+    } // for
+    int hot = Math.max(1, keyspace / 10);
+    Integer[] keys = new Integer[OPS_PER_ROUND];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = boxed[(random.nextInt(10) < 9) ? random.nextInt(hot)
+          : random.nextInt(keyspace)];
+    } // for
+    return keys;
+  } // keys(int)
+
+  // +---------------+-----------------------------------------------
+  // | Inner classes |
+  // +---------------+
+
+  /**
+   * The cache operations we exercise.
+   */
+  interface Cache {
+    Integer get(Integer key);
+
+    void put(Integer key, Integer value);
+  } // interface Cache
+} // class LruCacheBench
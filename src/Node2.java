@@ -21,6 +21,20 @@ public class Node2<T> {
    */
   Node2<T> next;
 
+  /**
+   * Identifies the structure that holds this node, for structures that
+   * keep track (e.g., SimpleCDLL.Owner, so that SimpleCDLL can reject
+   * handles from other lists).
+   */
+  Object owner;
+
+  /**
+   * The topmost entry for this node in the skip index of the list that
+   * holds it, for lists that keep one, or null if it has none.  (See
+   * SkipIndex.)
+   */
+  SkipIndex.Entry<T> entry;
+
   // +--------------+------------------------------------------------
   // | Constructors |
   // +--------------+
@@ -85,6 +99,19 @@ public class Node2<T> {
     return tmp;
   } // insertBefore
 
+  /**
+   * Link an unlinked node in after this node.  Returns that node.
+   */
+  Node2<T> linkAfter(Node2<T> node) {
+    node.prev = this;
+    node.next = this.next;
+    if (this.next != null) {
+      this.next.prev = node;
+    } // if
+    this.next = node;
+    return node;
+  } // linkAfter(Node2<T>)
+
   /**
    * Remove this node.
    */
@@ -0,0 +1,138 @@
+import java.io.PrintWriter;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ListIterator;
+import java.util.function.Supplier;
+
+/**
+ * Compares the heap footprint and garbage-collection pauses of a large
+ * SimpleCDLL with those of an OffHeapCDLL holding the same values.
+ *
+ * For each list we fill it with n longs, then force several full
+ * collections while the list is alive and report the heap in use, the
+ * off-heap bytes, and the mean time per collection.  We also report the
+ * direct memory still in use once the OffHeapCDLL is closed, which should
+ * be none, since close frees it without waiting for a collection.  Run
+ * with a heap large enough for the on-heap list, e.g.
+ *
+ *   java -Xmx8g OffHeapBench 20000000
+ */
+public class OffHeapBench {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The number of values when none is given on the command line.
+   */
+  static final int DEFAULT_SIZE = 10_000_000;
+
+  /**
+   * The number of full collections we time for each list.
+   */
+  static final int COLLECTIONS = 5;
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    int n = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+
+    pen.printf("%-12s %12s %12s %12s %12s %12s%n",
+        "List", "Size", "Heap MB", "Off-heap MB", "ms/GC", "Closed MB");
+    run(pen, "SimpleCDLL", n, () -> new SimpleCDLL<Long>());
+    run(pen, "OffHeapCDLL", n, () -> new OffHeapCDLL<Long>(RecordCodec.LONG));
+  } // main(String[])
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Fill a new list with n values and report on the heap while it is
+   * alive.
+   */
+  static void run(PrintWriter pen, String name, int n,
+      Supplier<SimpleList<Long>> factory) throws Exception {
+    collect();
+    long baseHeap = heapUsed();
+    long baseDirect = directUsed();
+
+    SimpleList<Long> lst = factory.get();
+    ListIterator<Long> lit = lst.listIterator();
+    for (long i = 0; i < n; i++) {
+      lit.add(i);
+    } // for
+    lit = null;
+
+    long gcTime = 0;
+    long gcCount = 0;
+    for (int i = 0; i < COLLECTIONS; i++) {
+      long time = collectionTime();
+      long count = collectionCount();
+      System.gc();
+      gcTime += collectionTime() - time;
+      gcCount += collectionCount() - count;
+    } // for
+    long heap = heapUsed() - baseHeap;
+    long offHeap = 0;
+    if (lst instanceof OffHeapCDLL) {
+      offHeap = ((OffHeapCDLL<Long>) lst).offHeapBytes();
+      ((OffHeapCDLL<Long>) lst).close();
+    } // if
+    long closed = directUsed() - baseDirect;
+
+    pen.printf("%-12s %12d %12.1f %12.1f %12.1f %12.1f%n", name, n,
+        heap / 1e6, offHeap / 1e6, (double) gcTime / Math.max(1, gcCount),
+        closed / 1e6);
+  } // run(PrintWriter, String, int, Supplier<SimpleList<Long>>)
+
+  /**
+   * Collect garbage until the heap stops shrinking.
+   */
+  static void collect() {
+    long used = Long.MAX_VALUE;
+    for (int i = 0; i < 10 && heapUsed() < used; i++) {
+      used = heapUsed();
+      System.gc();
+    } // for
+  } // collect()
+
+  static long heapUsed() {
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  } // heapUsed()
+
+  /**
+   * The bytes in use by direct buffers.
+   */
+  static long directUsed() {
+    for (BufferPoolMXBean pool
+        : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+      if (pool.getName().equals("direct")) {
+        return pool.getMemoryUsed();
+      } // if
+    } // for
+    return 0;
+  } // directUsed()
+
+  static long collectionTime() {
+    long total = 0;
+    for (GarbageCollectorMXBean gc
+        : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += Math.max(0, gc.getCollectionTime());
+    } // for
+    return total;
+  } // collectionTime()
+
+  static long collectionCount() {
+    long total = 0;
+    for (GarbageCollectorMXBean gc
+        : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += Math.max(0, gc.getCollectionCount());
+    } // for
+    return total;
+  } // collectionCount()
+} // class OffHeapBench
@@ -0,0 +1,501 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Circularly-linked, doubly-linked lists with a dummy node, stored
+ * outside the Java heap.
+ *
+ * Like SimpleICDLL, a node is a numbered slot and slot 0 is the dummy.
+ * Each slot is a fixed-width record in a direct ByteBuffer: the slot of
+ * the previous node, the slot of the next node, and the value, written
+ * by a RecordCodec.  The records live in segments of SEGMENT_RECORDS
+ * records each, so the list can grow without copying and is not limited
+ * to the 2GB of a single buffer.
+ *
+ * The garbage collector sees only the array of segments, however long
+ * the list gets.  The list owns its segments, and close() frees them at
+ * once, so the list may not be used afterwards.  Java 17 has no
+ * supported way to free a direct buffer (its memory API is still an
+ * incubator module), so we use sun.misc.Unsafe.invokeCleaner, from the
+ * jdk.unsupported module.  If that is not available, close() just drops
+ * the segments, and their memory is returned only after a later garbage
+ * collection finds them unreachable.
+ *
+ * This list supports the Fail Fast policy.  It does not support null
+ * values.
+ */
+public class OffHeapCDLL<T> implements SimpleList<T>, AutoCloseable {
+  // +-----------+---------------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The slot of the dummy node.
+   */
+  static final int DUMMY = 0;
+
+  /**
+   * The end of the chain of free slots.
+   */
+  static final int NONE = -1;
+
+  /**
+   * Each segment holds 2^SEGMENT_SHIFT records.
+   */
+  static final int SEGMENT_SHIFT = 16;
+
+  /**
+   * The number of records in a segment.
+   */
+  static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+
+  /**
+   * Masks out the segment number of a slot.
+   */
+  static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+
+  /**
+   * Where the links and value are within a record.
+   */
+  static final int PREV = 0;
+  static final int NEXT = Integer.BYTES;
+  static final int VALUE = 2 * Integer.BYTES;
+
+  /**
+   * Frees the memory of a direct buffer at once, or null if this JVM does
+   * not let us.  (See freer.)
+   */
+  static final MethodHandle FREE = freer();
+
+  // +--------+------------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The number of values in the list.
+   */
+  int size;
+
+  /**
+   * How values are stored.
+   */
+  RecordCodec<T> codec;
+
+  /**
+   * The number of bytes in each record.
+   */
+  int recordSize;
+
+  /**
+   * The segments holding the records.  Only the first numSegments are
+   * allocated.  Null once the list is closed.
+   */
+  ByteBuffer[] segments;
+
+  /**
+   * The number of allocated segments.
+   */
+  int numSegments;
+
+  /**
+   * The first free slot, or NONE.
+   */
+  int free;
+
+  /**
+   * The number of slots that have ever been used.
+   */
+  int used;
+
+  /**
+   * To support fail fast, we keep track of the number of changes that have
+   * been made to this list.
+   */
+  long numChanges;
+
+  // +--------------+------------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create an empty list whose values are stored by codec.
+   */
+  public OffHeapCDLL(RecordCodec<T> codec) {
+    this.size = 0;
+    this.codec = codec;
+    this.recordSize = VALUE + codec.width();
+    if ((long) SEGMENT_RECORDS * this.recordSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("records too wide: "
+          + this.recordSize + " bytes");
+    } // if
+    this.segments = new ByteBuffer[1];
+    this.numSegments = 0;
+    this.free = NONE;
+    this.used = 0;
+    this.numChanges = 0;
+
+    addSegment();
+    this.used = 1;
+    setPrev(DUMMY, DUMMY);
+    setNext(DUMMY, DUMMY);
+  } // OffHeapCDLL(RecordCodec<T>)
+
+  // +---------+-----------------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Free the segments of this list, which may not be used afterwards.
+   * Closing a closed list does nothing.
+   *
+   * The memory is freed at once (see the class comment), so no other
+   * thread may be using the list when we close it.
+   */
+  public void close() {
+    ByteBuffer[] segments = this.segments;
+    int numSegments = this.numSegments;
+    this.segments = null;
+    this.numSegments = 0;
+    this.size = 0;
+    ++this.numChanges;
+    if (segments != null) {
+      for (int i = 0; i < numSegments; i++) {
+        free(segments[i]);
+      } // for
+    } // if
+  } // close()
+
+  /**
+   * The number of bytes held outside the heap.
+   */
+  public long offHeapBytes() {
+    return (long) this.numSegments * SEGMENT_RECORDS * this.recordSize;
+  } // offHeapBytes()
+
+  // +----------------+----------------------------------------------------
+  // | Helper Methods |
+  // +----------------+
+
+  /**
+   * Make sure the list has not been closed.
+   *
+   * @throws IllegalStateException if it has.
+   */
+  void checkOpen() {
+    if (this.segments == null) {
+      throw new IllegalStateException("list is closed");
+    } // if
+  } // checkOpen()
+
+  ByteBuffer segment(int slot) {
+    return this.segments[slot >>> SEGMENT_SHIFT];
+  } // segment(int)
+
+  int offset(int slot) {
+    return (slot & SEGMENT_MASK) * this.recordSize;
+  } // offset(int)
+
+  int prev(int slot) {
+    return segment(slot).getInt(offset(slot) + PREV);
+  } // prev(int)
+
+  int next(int slot) {
+    return segment(slot).getInt(offset(slot) + NEXT);
+  } // next(int)
+
+  void setPrev(int slot, int prev) {
+    segment(slot).putInt(offset(slot) + PREV, prev);
+  } // setPrev(int, int)
+
+  void setNext(int slot, int next) {
+    segment(slot).putInt(offset(slot) + NEXT, next);
+  } // setNext(int, int)
+
+  T value(int slot) {
+    return this.codec.read(segment(slot), offset(slot) + VALUE);
+  } // value(int)
+
+  void setValue(int slot, T val) {
+    this.codec.write(segment(slot), offset(slot) + VALUE, val);
+  } // setValue(int, T)
+
+  /**
+   * Insert a new value after the node in the given slot.  Returns the
+   * slot of the new node.
+   */
+  int insertAfter(int node, T val) {
+    if (val == null) {
+      throw new NullPointerException("null values are not supported");
+    } // if
+    int slot = this.free;
+    if (slot != NONE) {
+      this.free = next(slot);
+    } else {
+      if (this.used == Integer.MAX_VALUE) {
+        throw new IllegalStateException("list is full");
+      } // if
+      if (this.used == (long) this.numSegments * SEGMENT_RECORDS) {
+        addSegment();
+      } // if
+      slot = this.used++;
+    } // if/else
+    int after = next(node);
+    setValue(slot, val);
+    setPrev(slot, node);
+    setNext(slot, after);
+    setPrev(after, slot);
+    setNext(node, slot);
+    return slot;
+  } // insertAfter(int, T)
+
+  /**
+   * Remove the node in the given slot and put the slot on the free chain.
+   */
+  void remove(int node) {
+    int before = prev(node);
+    int after = next(node);
+    setNext(before, after);
+    setPrev(after, before);
+    setPrev(node, NONE);
+    setNext(node, this.free);
+    this.free = node;
+  } // remove(int)
+
+  /**
+   * Allocate another segment.
+   */
+  void addSegment() {
+    if (this.numSegments == this.segments.length) {
+      this.segments = Arrays.copyOf(this.segments, this.numSegments * 2);
+    } // if
+    this.segments[this.numSegments++] =
+        ByteBuffer.allocateDirect(SEGMENT_RECORDS * this.recordSize)
+            .order(ByteOrder.nativeOrder());
+  } // addSegment()
+
+  /**
+   * Free the memory of a direct buffer at once, if we can.
+   */
+  static void free(ByteBuffer buffer) {
+    if (FREE == null) {
+      return;
+    } // if
+    try {
+      FREE.invokeExact(buffer);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    } // try/catch
+  } // free(ByteBuffer)
+
+  /**
+   * Find sun.misc.Unsafe.invokeCleaner, bound to the one Unsafe, or
+   * return null if it is missing or we may not use it.  We look it up
+   * reflectively so that we compile without warnings about internal
+   * APIs.
+   */
+  static MethodHandle freer() {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      return MethodHandles.lookup()
+          .findVirtual(unsafeClass, "invokeCleaner",
+              MethodType.methodType(void.class, ByteBuffer.class))
+          .bindTo(theUnsafe.get(null));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    } // try/catch
+  } // freer()
+
+  // +-----------+---------------------------------------------------------
+  // | Iterators |
+  // +-----------+
+
+  public Iterator<T> iterator() {
+    return listIterator();
+  } // iterator()
+
+  public ListIterator<T> listIterator() {
+    checkOpen();
+    return new ListIterator<T>() {
+      // +--------+--------------------------------------------------------
+      // | Fields |
+      // +--------+
+
+      /**
+       * The position in the list of the next value to be returned.
+       * Included because ListIterators must provide nextIndex and
+       * prevIndex.
+       */
+      int pos = 0;
+
+      /**
+       * The cursor is between neighboring values, so we keep the slots
+       * of the previous and next value.
+       */
+      int prev = DUMMY;
+      int next = OffHeapCDLL.this.next(DUMMY);
+
+      /**
+       * The slot to be updated by remove or set.  Has a value of NONE
+       * when there is no such value.
+       */
+      int update = NONE;
+
+      /**
+       * The number of changes of the OffHeapCDLL at the time of this
+       * iterator object's creation, or when this iterator last mutated
+       * the OffHeapCDLL.
+       */
+      long numChanges = OffHeapCDLL.this.numChanges;
+
+      // +---------+-------------------------------------------------------
+      // | Methods |
+      // +---------+
+
+      public void add(T val) {
+        checkConcurrentModification();
+
+        // Add a node
+        this.prev = OffHeapCDLL.this.insertAfter(this.prev, val);
+
+        // Note that we cannot update
+        this.update = NONE;
+
+        ++OffHeapCDLL.this.size;
+        ++this.pos;
+        incrementNumChanges();
+      } // add(T)
+
+      public boolean hasNext() {
+        checkConcurrentModification();
+        return (this.pos < OffHeapCDLL.this.size);
+      } // hasNext()
+
+      public boolean hasPrevious() {
+        checkConcurrentModification();
+        return (this.pos > 0);
+      } // hasPrevious()
+
+      public T next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        } // if
+        // Identify the node to update
+        this.update = this.next;
+        // Advance the cursor
+        this.prev = this.next;
+        this.next = OffHeapCDLL.this.next(this.next);
+        // Note the movement
+        ++this.pos;
+        // And return the value
+        return OffHeapCDLL.this.value(this.update);
+      } // next()
+
+      public int nextIndex() {
+        checkConcurrentModification();
+        return this.pos;
+      } // nextIndex()
+
+      public int previousIndex() {
+        checkConcurrentModification();
+        return this.pos - 1;
+      } // prevIndex
+
+      public T previous() {
+        if (!this.hasPrevious()) {
+          throw new NoSuchElementException();
+        } // if
+        // Identify the node to update
+        this.update = this.prev;
+        // Advance the cursor
+        this.next = this.prev;
+        this.prev = OffHeapCDLL.this.prev(this.prev);
+        // Note the movement
+        --this.pos;
+        // And return the value
+        return OffHeapCDLL.this.value(this.update);
+      } // previous()
+
+      public void remove() {
+        // Sanity check
+        checkConcurrentModification();
+        if (this.update == NONE) {
+          throw new IllegalStateException();
+        } // if
+
+        // Update the cursor
+        if (this.next == this.update) {
+          this.next = OffHeapCDLL.this.next(this.update);
+        } // if
+        if (this.prev == this.update) {
+          this.prev = OffHeapCDLL.this.prev(this.update);
+          --this.pos;
+        } // if
+
+        // Do the real work
+        OffHeapCDLL.this.remove(this.update);
+        --OffHeapCDLL.this.size;
+
+        // Note that no more updates are possible
+        this.update = NONE;
+
+        incrementNumChanges();
+      } // remove()
+
+      public void set(T val) {
+        checkConcurrentModification();
+        // Sanity check
+        if (this.update == NONE) {
+          throw new IllegalStateException();
+        } // if
+        if (val == null) {
+          throw new NullPointerException("null values are not supported");
+        } // if
+        // Do the real work
+        OffHeapCDLL.this.setValue(this.update, val);
+        // Note that no more updates are possible
+        this.update = NONE;
+      } // set(T)
+
+      // +----------------+------------------------------------------------
+      // | Helper Methods |
+      // +----------------+
+
+      /**
+       * Check if list has not been changed by other iterators (or
+       * closed). This implements the "fail fast" strategy.
+       *
+       * @throws ConcurrentModificationException if other iterators have
+       *   modified list.
+       * @throws IllegalStateException if the list has been closed.
+       */
+      void checkConcurrentModification() {
+        OffHeapCDLL.this.checkOpen();
+        if (this.numChanges != OffHeapCDLL.this.numChanges) {
+          throw new ConcurrentModificationException();
+        } // if
+      } // checkConcurrentModification()
+
+      /**
+       * Increment `this.numChanges` and `OffHeapCDLL.this.numChanges` by 1.
+       */
+      void incrementNumChanges() {
+        this.numChanges++;
+        OffHeapCDLL.this.numChanges++;
+      } // incrementNumChanges()
+    };
+  } // listIterator()
+
+} // class OffHeapCDLL<T>
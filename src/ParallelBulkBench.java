@@ -0,0 +1,160 @@
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Compares SimpleCDLL's parallel bulk operations (parallelReplaceAll and
+ * parallelReduce) with their sequential counterparts, and with the same
+ * work done on an ArrayList by a parallel stream, when each value takes
+ * a lot of work (as when re-encoding values).
+ *
+ * We use the harness in SimpleListBench, so the results are in the same
+ * units: operations (values visited) per second and bytes per operation
+ * (allocated by the calling thread).  Set the number of worker threads
+ * with -Djava.util.concurrent.ForkJoinPool.common.parallelism=N to see
+ * how the parallel operations scale.
+ *
+ * Usage: java ParallelBulkBench [size ...]
+ */
+public class ParallelBulkBench {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The list sizes used when none are given on the command line.
+   */
+  static final int[] DEFAULT_SIZES = {100_000, 1_000_000};
+
+  /**
+   * The number of rounds of mixing we do per value.
+   */
+  static final int WORK = 200;
+
+  /**
+   * How we replace values: by a costly function of their hash codes.
+   */
+  static final UnaryOperator<Object> OP = (val) -> mix(val.hashCode());
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * Where we keep the results of reductions, so that they are not
+   * optimized away.
+   */
+  static long sink;
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    int[] sizes = DEFAULT_SIZES;
+    if (args.length > 0) {
+      sizes = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        sizes[i] = Integer.parseInt(args[i]);
+      } // for
+    } // if
+
+    List<SimpleListBench.Impl> impls = new ArrayList<SimpleListBench.Impl>();
+    impls.add(new SimpleListBench.Impl("SimpleCDLL",
+        () -> new SimpleCDLL<Object>()));
+    impls.add(new SimpleListBench.Impl("SimpleCDLL+index", () -> {
+      SimpleCDLL<Object> lst = new SimpleCDLL<Object>();
+      lst.enableIndex();
+      return lst;
+    }));
+    impls.add(new SimpleListBench.Impl("ArrayList",
+        () -> new JavaList<Object>(new ArrayList<Object>())));
+
+    List<SimpleListBench.Benchmark> benches =
+        new ArrayList<SimpleListBench.Benchmark>();
+    benches.add(new SimpleListBench.Benchmark("replaceAll", true,
+        ParallelBulkBench::replaceAll));
+    benches.add(new SimpleListBench.Benchmark("parallelReplaceAll", true,
+        ParallelBulkBench::parallelReplaceAll));
+    benches.add(new SimpleListBench.Benchmark("parallelReduce", true,
+        ParallelBulkBench::parallelReduce));
+
+    pen.printf("Common pool parallelism: %d%n",
+        ForkJoinPool.getCommonPoolParallelism());
+    SimpleListBench.printHeader(pen);
+    for (SimpleListBench.Benchmark bench : benches) {
+      for (int size : sizes) {
+        Object[] values = SimpleListBench.values("Integer", size);
+        for (SimpleListBench.Impl impl : impls) {
+          SimpleListBench.printResult(pen, bench.name, impl.name, "Integer",
+              size, SimpleListBench.measure(impl.factory, bench, values));
+        } // for impl
+      } // for size
+    } // for bench
+  } // main(String[])
+
+  // +------------+--------------------------------------------------
+  // | Benchmarks |
+  // +------------+
+
+  /**
+   * Replace every value with OP, in one thread.
+   */
+  static long replaceAll(SimpleList<Object> lst, Object[] values) {
+    if (lst instanceof SimpleCDLL) {
+      ((SimpleCDLL<Object>) lst).replaceAll(OP);
+    } else {
+      ((JavaList<Object>) lst).list.replaceAll(OP);
+    } // if/else
+    return values.length;
+  } // replaceAll(SimpleList<Object>, Object[])
+
+  /**
+   * Replace every value with OP, in parallel.
+   */
+  static long parallelReplaceAll(SimpleList<Object> lst, Object[] values) {
+    if (lst instanceof SimpleCDLL) {
+      ((SimpleCDLL<Object>) lst).parallelReplaceAll(OP);
+    } else {
+      List<Object> list = ((JavaList<Object>) lst).list;
+      IntStream.range(0, list.size()).parallel()
+          .forEach((i) -> list.set(i, OP.apply(list.get(i))));
+    } // if/else
+    return values.length;
+  } // parallelReplaceAll(SimpleList<Object>, Object[])
+
+  /**
+   * Sum the mixed hash codes of the values, in parallel.
+   */
+  static long parallelReduce(SimpleList<Object> lst, Object[] values) {
+    if (lst instanceof SimpleCDLL) {
+      sink = ((SimpleCDLL<Object>) lst).parallelReduce(0L,
+          (acc, val) -> acc + mix(val.hashCode()), Long::sum);
+    } else {
+      sink = ((JavaList<Object>) lst).list.parallelStream()
+          .mapToLong((val) -> mix(val.hashCode())).sum();
+    } // if/else
+    return values.length;
+  } // parallelReduce(SimpleList<Object>, Object[])
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Scramble x with WORK rounds of xorshift.
+   */
+  static int mix(int x) {
+    x |= 1;
+    for (int i = 0; i < WORK; i++) {
+      x ^= x << 13;
+      x ^= x >>> 17;
+      x ^= x << 5;
+    } // for
+    return x;
+  } // mix(int)
+} // class ParallelBulkBench
@@ -0,0 +1,76 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Ways of storing values as fixed-width records in a ByteBuffer.
+ */
+public interface RecordCodec<T> {
+  /**
+   * The number of bytes each value takes.
+   */
+  public int width();
+
+  /**
+   * Store a value in buf, starting at offset.
+   */
+  public void write(ByteBuffer buf, int offset, T val);
+
+  /**
+   * Read the value stored in buf, starting at offset.
+   */
+  public T read(ByteBuffer buf, int offset);
+
+  // +--------+------------------------------------------------------
+  // | Codecs |
+  // +--------+
+
+  /**
+   * Integers, as four bytes.
+   */
+  public static final RecordCodec<Integer> INT = new RecordCodec<Integer>() {
+    public int width() {
+      return Integer.BYTES;
+    } // width()
+
+    public void write(ByteBuffer buf, int offset, Integer val) {
+      buf.putInt(offset, val);
+    } // write(ByteBuffer, int, Integer)
+
+    public Integer read(ByteBuffer buf, int offset) {
+      return buf.getInt(offset);
+    } // read(ByteBuffer, int)
+  }; // INT
+
+  /**
+   * Longs, as eight bytes.
+   */
+  public static final RecordCodec<Long> LONG = new RecordCodec<Long>() {
+    public int width() {
+      return Long.BYTES;
+    } // width()
+
+    public void write(ByteBuffer buf, int offset, Long val) {
+      buf.putLong(offset, val);
+    } // write(ByteBuffer, int, Long)
+
+    public Long read(ByteBuffer buf, int offset) {
+      return buf.getLong(offset);
+    } // read(ByteBuffer, int)
+  }; // LONG
+
+  /**
+   * Doubles, as eight bytes.
+   */
+  public static final RecordCodec<Double> DOUBLE = new RecordCodec<Double>() {
+    public int width() {
+      return Double.BYTES;
+    } // width()
+
+    public void write(ByteBuffer buf, int offset, Double val) {
+      buf.putDouble(offset, val);
+    } // write(ByteBuffer, int, Double)
+
+    public Double read(ByteBuffer buf, int offset) {
+      return buf.getDouble(offset);
+    } // read(ByteBuffer, int)
+  }; // DOUBLE
+} // interface RecordCodec<T>
@@ -0,0 +1,99 @@
+import java.util.Iterator;
+import java.util.ListIterator;
+
+/**
+ * A SimpleList that passes every operation on to another SimpleList and
+ * records the operations made through its iterators in a Trace.
+ * Values are recorded by their hash codes.
+ */
+public class RecordingList<T> implements SimpleList<T> {
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The list that does the work.
+   */
+  SimpleList<T> list;
+
+  /**
+   * The trace we record into.
+   */
+  Trace trace;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Record the operations on list into trace.
+   */
+  public RecordingList(SimpleList<T> list, Trace trace) {
+    this.list = list;
+    this.trace = trace;
+  } // RecordingList(SimpleList<T>, Trace)
+
+  // +-----------+---------------------------------------------------
+  // | Iterators |
+  // +-----------+
+
+  public Iterator<T> iterator() {
+    return listIterator();
+  } // iterator()
+
+  public ListIterator<T> listIterator() {
+    ListIterator<T> lit = this.list.listIterator();
+    int id = this.trace.appendIterator();
+    Trace trace = this.trace;
+    return new ListIterator<T>() {
+      public void add(T val) {
+        trace.append(Trace.ADD, id, hash(val));
+        lit.add(val);
+      } // add(T)
+
+      public boolean hasNext() {
+        return lit.hasNext();
+      } // hasNext()
+
+      public boolean hasPrevious() {
+        return lit.hasPrevious();
+      } // hasPrevious()
+
+      public T next() {
+        trace.append(Trace.NEXT, id, 0);
+        return lit.next();
+      } // next()
+
+      public int nextIndex() {
+        return lit.nextIndex();
+      } // nextIndex()
+
+      public T previous() {
+        trace.append(Trace.PREVIOUS, id, 0);
+        return lit.previous();
+      } // previous()
+
+      public int previousIndex() {
+        return lit.previousIndex();
+      } // previousIndex()
+
+      public void remove() {
+        trace.append(Trace.REMOVE, id, 0);
+        lit.remove();
+      } // remove()
+
+      public void set(T val) {
+        trace.append(Trace.SET, id, hash(val));
+        lit.set(val);
+      } // set(T)
+    };
+  } // listIterator()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  static int hash(Object val) {
+    return (val == null) ? 0 : val.hashCode();
+  } // hash(Object)
+} // class RecordingList<T>
@@ -1,4 +1,12 @@
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
 
 /**
  * Some simple experiments with SimpleCDLLs
@@ -13,5 +21,275 @@ public class SCDLLExpt {
     SimpleListExpt.expt5(pen, new SimpleCDLL<String>());
     SimpleListExpt.expt6(pen, new SimpleCDLL<String>());
     SimpleListExpt.expt7(pen, new SimpleCDLL<String>());
+    snapshotExpt(pen, new SimpleCDLL<String>());
+    lazyRemovalExpt(pen, new SimpleCDLL<String>());
+    failedSortExpt(pen, 1 << 16);
+    staleHandleExpt(pen);
+    loadedHandleExpt(pen);
+    for (int poolCapacity : new int[] {0, 16}) {
+      changingCallbackExpt(pen, poolCapacity);
+    } // for
+    indexUpdateExpt(pen, 1 << 12, 1 << 18);
   } // main(String[]
+
+  /**
+   * Unlike failFastExpt, a reader using a snapshot iterator is not
+   * disturbed when the list changes.
+   */
+  static void snapshotExpt(PrintWriter pen, SimpleCDLL<String> lst) {
+    ListIterator<String> writer = lst.listIterator();
+    writer.add("a");
+    writer.add("b");
+    ListIterator<String> reader = lst.snapshotIterator();
+    pen.println("Reader sees " + reader.next());
+    pen.println("Writer adds c");
+    writer.add("c");
+    SimpleListExpt.printList(pen, lst);
+    pen.println("Reader sees " + reader.next()
+        + (reader.hasNext() ? " and more" : " and nothing more"));
+    pen.println();
+  } // snapshotExpt(PrintWriter, SimpleCDLL<String>)
+
+  /**
+   * With lazy removal, removing through one iterator does not invalidate
+   * another, which sees the removed value disappear.
+   */
+  static void lazyRemovalExpt(PrintWriter pen, SimpleCDLL<String> lst)
+      throws Exception {
+    lst.enableLazyRemoval();
+    SimpleListExpt.addStrings(pen, lst, new String[] {"A", "B", "C", "D"});
+    ListIterator<String> lit1 = lst.listIterator();
+    ListIterator<String> lit2 = lst.listIterator();
+    pen.println("Iterator 2 passes " + lit2.next() + " and " + lit2.next());
+    pen.println("Iterator 1 removes " + lit1.next() + " and " + lit1.next());
+    lit1.remove();
+    lit1.previous();
+    lit1.remove();
+    SimpleListExpt.printList(pen, lst);
+    pen.println("Iterator 2 is at index " + lit2.nextIndex() + " and sees "
+        + lit2.next());
+    pen.println();
+  } // lazyRemovalExpt(PrintWriter, SimpleCDLL<String>)
+
+  /**
+   * A parallel sort whose comparator throws leaves the list as it was,
+   * even though other segments may still have been sorting when it
+   * threw.
+   */
+  static void failedSortExpt(PrintWriter pen, int size) {
+    List<Integer> values = new ArrayList<Integer>();
+    for (int i = 0; i < size - 1; i++) {
+      values.add(i);
+    } // for
+    Collections.shuffle(values, new Random(1));
+    // The comparator throws on the last value, which is in the last
+    // segment
+    values.add(size - 1);
+    SimpleCDLL<Integer> lst = new SimpleCDLL<Integer>();
+    for (Integer val : values) {
+      lst.addLast(val);
+    } // for
+    try {
+      lst.parallelSort((x, y) -> {
+        if (x == size - 1 || y == size - 1) {
+          throw new IllegalStateException("cannot compare " + (size - 1));
+        } // if
+        return Integer.compare(x, y);
+      });
+      pen.println("Sort did not throw");
+    } catch (IllegalStateException e) {
+      pen.println("Sort threw " + e.getClass().getSimpleName());
+    } // try/catch
+    pen.println("List is " + ((wellFormed(lst) && lst.snapshot().equals(values))
+        ? "unchanged" : "CORRUPTED"));
+    pen.println();
+  } // failedSortExpt(PrintWriter, int)
+
+  /**
+   * Handle operations reject a handle whose value has been removed, the
+   * dummy's, and one from another list, and leave the list alone.
+   */
+  static void staleHandleExpt(PrintWriter pen) {
+    SimpleCDLL<String> lst = new SimpleCDLL<String>();
+    SimpleCDLL<String> other = new SimpleCDLL<String>();
+    Node2<String> a = lst.addLast("a");
+    lst.addLast("b");
+    Node2<String> x = other.addLast("x");
+    pen.println("Removed " + lst.remove(a));
+    tryHandle(pen, "remove(a) again", () -> lst.remove(a));
+    tryHandle(pen, "moveToBack(a)", () -> lst.moveToBack(a));
+    tryHandle(pen, "moveToFront(other's x)", () -> lst.moveToFront(x));
+    tryHandle(pen, "remove(dummy)", () -> lst.remove(lst.dummy));
+    lst.enableLazyRemoval();
+    Node2<String> c = lst.addLast("c");
+    lst.remove(c);
+    tryHandle(pen, "remove(dead c)", () -> lst.remove(c));
+    SimpleListExpt.printList(pen, lst);
+    pen.println("List is " + (wellFormed(lst) ? "well formed" : "CORRUPTED"));
+    pen.println();
+  } // staleHandleExpt(PrintWriter)
+
+  /**
+   * A list loaded from a file supports handle operations like any other.
+   */
+  static void loadedHandleExpt(PrintWriter pen) throws Exception {
+    SimpleCDLL<String> saved = new SimpleCDLL<String>();
+    SimpleListExpt.addStrings(pen, saved, new String[] {"a", "b", "c"});
+    Path path = Files.createTempFile("SCDLLExpt", ".cdll");
+    try {
+      CDLLFiles.write(saved, ElementCodec.STRING, path);
+      SimpleCDLL<String> lst = CDLLFiles.load(path, ElementCodec.STRING);
+      pen.println("Loaded; removing b and moving c to the front");
+      lst.remove("b");
+      lst.moveToFront(lst.lastHandle());
+      SimpleListExpt.printList(pen, lst);
+      pen.println("List is "
+          + (wellFormed(lst) ? "well formed" : "CORRUPTED"));
+    } finally {
+      Files.delete(path);
+    } // try/finally
+    pen.println();
+  } // loadedHandleExpt(PrintWriter)
+
+  /**
+   * removeIf and replaceAll throw ConcurrentModificationException, and
+   * leave the list well formed, when their callback removes the value
+   * after the one it was given.
+   */
+  static void changingCallbackExpt(PrintWriter pen, int poolCapacity) {
+    pen.println("With a pool of " + poolCapacity + ":");
+    for (boolean replace : new boolean[] {false, true}) {
+      SimpleCDLL<String> lst = new SimpleCDLL<String>(poolCapacity);
+      lst.addLast("a");
+      Node2<String> b = lst.addLast("b");
+      lst.addLast("c");
+      String what = replace ? "replaceAll" : "removeIf";
+      try {
+        if (replace) {
+          lst.replaceAll((val) -> {
+            if (val == null || val.equals("a")) {
+              lst.remove(b);
+            } // if
+            return val + "!";
+          });
+        } else {
+          lst.removeIf((val) -> {
+            if (val == null || val.equals("a")) {
+              lst.remove(b);
+            } // if
+            return true;
+          });
+        } // if/else
+        pen.println(what + " did NOT throw");
+      } catch (ConcurrentModificationException e) {
+        pen.println(what + " threw ConcurrentModificationException");
+      } // try/catch
+      SimpleListExpt.printList(pen, lst);
+      pen.println("List is "
+          + (wellFormed(lst) ? "well formed" : "CORRUPTED"));
+    } // for
+    pen.println();
+  } // changingCallbackExpt(PrintWriter, int)
+
+  /**
+   * Run a handle operation that should fail, and say whether it did.
+   */
+  /**
+   * With the skip index on, moving values by handle and adding small
+   * batches update the index in place, so their cost grows with log n
+   * rather than with n.  We time both at a small and a large size, and
+   * check that the index still agrees with the chain.
+   */
+  static void indexUpdateExpt(PrintWriter pen, int small, int large) {
+    // Once to warm up, then for real
+    indexUpdateTimes(small);
+    indexUpdateTimes(large);
+    double[] smallTimes = indexUpdateTimes(small);
+    double[] largeTimes = indexUpdateTimes(large);
+    if (smallTimes == null || largeTimes == null) {
+      pen.println("Index is CORRUPTED");
+      pen.println();
+      return;
+    } // if
+    String[] ops = {"moveToFront/moveToBack", "addAllAt of 8 values"};
+    for (int i = 0; i < ops.length; i++) {
+      double growth = largeTimes[i] / smallTimes[i];
+      pen.printf("%s: %.0f ns at %d values, %.0f ns at %d (%.1fx)%n",
+          ops[i], smallTimes[i], small, largeTimes[i], large, growth);
+      // An index rebuilt each time would grow with the size; allow for
+      // the cache misses of a larger list
+      pen.println(growth < (double) large / small / 4
+          ? "  grows like log n" : "  GROWS LIKE n");
+    } // for
+    pen.println();
+  } // indexUpdateExpt(PrintWriter, int, int)
+
+  /**
+   * Time handle moves and small batch additions on an indexed list of
+   * size values.  Returns the nanoseconds per operation of each, or
+   * null if the index no longer agrees with the chain.
+   */
+  @SuppressWarnings("unchecked")
+  static double[] indexUpdateTimes(int size) {
+    final int OPS = 1 << 14;
+    Random random = new Random(size);
+    SimpleCDLL<Integer> lst = new SimpleCDLL<Integer>();
+    lst.enableIndex();
+    Node2<Integer>[] handles = (Node2<Integer>[]) new Node2<?>[size];
+    for (int i = 0; i < size; i++) {
+      handles[i] = lst.addLast(i);
+    } // for
+
+    long start = System.nanoTime();
+    for (int i = 0; i < OPS; i++) {
+      Node2<Integer> handle = handles[random.nextInt(size)];
+      if (i % 2 == 0) {
+        lst.moveToFront(handle);
+      } else {
+        lst.moveToBack(handle);
+      } // if/else
+    } // for
+    double moves = (double) (System.nanoTime() - start) / OPS;
+
+    List<Integer> batch = Collections.nCopies(8, -1);
+    start = System.nanoTime();
+    for (int i = 0; i < OPS; i++) {
+      lst.addAllAt(lst.listIterator(random.nextInt(lst.size + 1)), batch);
+    } // for
+    double adds = (double) (System.nanoTime() - start) / OPS;
+
+    // Compare positional access through the index with the chain
+    Node2<Integer> node = lst.dummy.next;
+    for (int i = 0; i < lst.size; i++, node = node.next) {
+      if (i % 97 == 0 && lst.get(i) != node.value) {
+        return null;
+      } // if
+    } // for
+    return new double[] {moves, adds};
+  } // indexUpdateTimes(int)
+
+  static void tryHandle(PrintWriter pen, String what, Runnable op) {
+    try {
+      op.run();
+      pen.println(what + " was ACCEPTED");
+    } catch (IllegalArgumentException e) {
+      pen.println(what + " was rejected");
+    } // try/catch
+  } // tryHandle(PrintWriter, String, Runnable)
+
+  /**
+   * Determine whether the links of lst form one ring of size + 1 nodes
+   * (counting the dummy) whose prev links mirror its next links.
+   */
+  static boolean wellFormed(SimpleCDLL<?> lst) {
+    int count = 0;
+    for (Node2<?> node = lst.dummy.next; node != lst.dummy;
+        node = node.next) {
+      if (node == null || node.next == null || node.next.prev != node
+          || ++count > lst.size) {
+        return false;
+      } // if
+    } // for
+    return count == lst.size && lst.dummy.next.prev == lst.dummy;
+  } // wellFormed(SimpleCDLL<?>)
 } // SDLLExpt
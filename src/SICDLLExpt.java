@@ -0,0 +1,17 @@
+import java.io.PrintWriter;
+
+/**
+ * Some simple experiments with SimpleICDLLs
+ */
+public class SICDLLExpt {
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    SimpleListExpt.expt1(pen, new SimpleICDLL<String>());
+    SimpleListExpt.expt2(pen, new SimpleICDLL<String>());
+    SimpleListExpt.expt3(pen, new SimpleICDLL<String>());
+    SimpleListExpt.expt4(pen, new SimpleICDLL<String>(), 3);
+    SimpleListExpt.expt5(pen, new SimpleICDLL<String>());
+    SimpleListExpt.expt6(pen, new SimpleICDLL<String>());
+    SimpleListExpt.expt7(pen, new SimpleICDLL<String>());
+  } // main(String[]
+} // SICDLLExpt
@@ -0,0 +1,17 @@
+import java.io.PrintWriter;
+
+/**
+ * Some simple experiments with SimpleUCDLLs
+ */
+public class SUCDLLExpt {
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    SimpleListExpt.expt1(pen, new SimpleUCDLL<String>());
+    SimpleListExpt.expt2(pen, new SimpleUCDLL<String>());
+    SimpleListExpt.expt3(pen, new SimpleUCDLL<String>());
+    SimpleListExpt.expt4(pen, new SimpleUCDLL<String>(), 3);
+    SimpleListExpt.expt5(pen, new SimpleUCDLL<String>());
+    SimpleListExpt.expt6(pen, new SimpleUCDLL<String>());
+    SimpleListExpt.expt7(pen, new SimpleUCDLL<String>());
+  } // main(String[]
+} // SUCDLLExpt
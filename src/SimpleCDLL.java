@@ -1,7 +1,22 @@
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Simple circularly-linked, doubly-linked lists with a dummy node.
@@ -13,6 +28,39 @@ import java.util.NoSuchElementException;
  * Based on lab work completed with Keely Miyamoto and Nye Tenerelli.
  */
 public class SimpleCDLL<T> implements SimpleList<T> {
+  // +-----------+---------------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * Seeks of more than this many steps use the skip index, if there is
+   * one.
+   */
+  static final int INDEX_THRESHOLD = 16;
+
+  /**
+   * Parallel sorts give each segment at least this many values.
+   */
+  static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+  /**
+   * Parallel bulk operations give each segment at least this many
+   * values.
+   */
+  static final int PARALLEL_THRESHOLD = 1 << 10;
+
+  /**
+   * The value of a node that has been removed lazily.  (See
+   * enableLazyRemoval.)
+   */
+  static final Object DEAD = new Object();
+
+  /**
+   * In lazy mode, we compact only once there are at least this many
+   * dead nodes, so that short lists do not compact on every removal.
+   */
+  static final int MIN_DEAD = 32;
+
   // +--------+------------------------------------------------------------
   // | Fields |
   // +--------+
@@ -36,6 +84,129 @@ public class SimpleCDLL<T> implements SimpleList<T> {
    */
   long numChanges;
 
+  /**
+   * Retired nodes waiting to be reused, chained through their next
+   * fields.  Reusing nodes keeps insertion and removal from allocating
+   * once the list has reached a steady size.
+   */
+  Node2<T> pool;
+
+  /**
+   * The number of nodes in the pool.
+   */
+  int poolSize;
+
+  /**
+   * The most nodes we keep in the pool.  Zero means no pooling.
+   */
+  int poolCapacity;
+
+  /**
+   * The node most recently reached by positional access (the "finger"),
+   * its index, and the value of numChanges when it was reached.  Seeks
+   * may start from the finger, but only while numChanges is unchanged.
+   */
+  Node2<T> finger;
+  int fingerIndex;
+  long fingerChanges;
+
+  /**
+   * An optional skip index over the nodes, for O(log n) positional
+   * access.  Null unless enabled with enableIndex.
+   */
+  SkipIndex<T> index;
+
+  /**
+   * An optional hash index from values to the nodes that hold them, for
+   * expected O(1) search by value.  Null unless enabled with
+   * enableValueIndex.
+   */
+  ValueIndex<T> valueIndex;
+
+  /**
+   * The number of times a value has been replaced (by set or replaceAll,
+   * or by DEAD in a lazy removal).  Unlike numChanges, replacing values
+   * does not invalidate iterators, but it does invalidate the snapshot.
+   */
+  long numSets;
+
+  /**
+   * The most recent snapshot taken by the writing thread, and the values
+   * of numChanges and numSets when it was taken.
+   */
+  List<T> snapshot;
+  long snapshotChanges;
+  long snapshotSets;
+
+  /**
+   * Whether other threads may take snapshots.  (See
+   * enableSnapshotPublishing.)  Volatile so that a reader in another
+   * thread sees it set.
+   */
+  volatile boolean publishing;
+
+  /**
+   * The thread that writes the list while we are publishing.
+   */
+  Thread writer;
+
+  /**
+   * While we are publishing, the version of the list, which the writer
+   * makes odd when it starts a write and even again when it finishes.
+   * A reader that copies the list while the version is even and finds it
+   * unchanged afterwards has a consistent copy.
+   */
+  volatile long version;
+
+  /**
+   * How deeply the writer is nested in writes (see beginWrite).  Only
+   * the outermost write changes the version.
+   */
+  int writeDepth;
+
+  /**
+   * The latest snapshot taken while we are publishing, and the version
+   * of the list it shows.  Readers share it until the list changes.
+   */
+  volatile Published<T> published;
+
+  /**
+   * Whether a reader is waiting for the writer to finish its write and
+   * publish a snapshot.
+   */
+  volatile boolean snapshotWanted;
+
+  /**
+   * Counts of what the list does, or null if we are not keeping them.
+   * (See CDLLMetrics.)
+   */
+  CDLLMetrics metrics;
+
+  /**
+   * Whether removal is lazy, and if so, the fraction of the nodes that
+   * may be dead before we compact.  (See enableLazyRemoval.)
+   */
+  boolean lazy;
+  double maxDeadRatio;
+
+  /**
+   * The number of dead nodes still linked into the list.
+   */
+  int numDead;
+
+  /**
+   * The number of lazy removals so far.  An iterator whose count differs
+   * may have had values before it removed by another iterator, so it
+   * must recount its position.
+   */
+  long numDeaths;
+
+  /**
+   * The owner token of this list.  Every node of the list has this token,
+   * or one merged into it, as its owner (see Owner).
+   */
+  Owner owner;
+
   // +--------------+------------------------------------------------------
   // | Constructors |
   // +--------------+
@@ -44,18 +215,1230 @@ public class SimpleCDLL<T> implements SimpleList<T> {
    * Create an empty list.
    */
   public SimpleCDLL() {
+    this(0);
+  } // SimpleCDLL()
+
+  /**
+   * Create an empty list that keeps up to poolCapacity removed nodes for
+   * reuse by later insertions.
+   */
+  public SimpleCDLL(int poolCapacity) {
+    if (poolCapacity < 0) {
+      throw new IllegalArgumentException("negative pool capacity");
+    } // if
     this.size = 0;
     this.dummy = new Node2<T>(null);
     this.numChanges = 0;
+    this.pool = null;
+    this.poolSize = 0;
+    this.poolCapacity = poolCapacity;
+    this.finger = null;
+    this.index = null;
+    this.valueIndex = null;
+    this.numSets = 0;
+    this.snapshot = null;
+    this.publishing = false;
+    this.writer = null;
+    this.version = 0;
+    this.writeDepth = 0;
+    this.published = null;
+    this.snapshotWanted = false;
+    this.metrics = null;
+    this.lazy = false;
+    this.maxDeadRatio = 0;
+    this.numDead = 0;
+    this.numDeaths = 0;
+    this.owner = new Owner();
 
     this.dummy.next = this.dummy;
     this.dummy.prev = this.dummy;
-  } // SimpleDLL
+  } // SimpleCDLL(int)
+
+  // +-------------------+-------------------------------------------------
+  // | Positional Access |
+  // +-------------------+
+
+  /**
+   * Get the value at the given index.
+   *
+   * @throws IndexOutOfBoundsException if index is not in [0, size).
+   */
+  public T get(int index) {
+    checkIndex(index, this.size);
+    return node(index).value;
+  } // get(int)
+
+  /**
+   * Replace the value at the given index.  Returns the old value.
+   *
+   * @throws IndexOutOfBoundsException if index is not in [0, size).
+   */
+  public T set(int index, T val) {
+    checkIndex(index, this.size);
+    Node2<T> node = node(index);
+    T old = node.value;
+    beginWrite();
+    try {
+      setValue(node, val);
+    } finally {
+      endWrite();
+    } // try/finally
+    noteSet();
+    return old;
+  } // set(int, T)
+
+  /**
+   * Insert a value so that it ends up at the given index.
+   *
+   * @throws IndexOutOfBoundsException if index is not in [0, size].
+   */
+  public void add(int index, T val) {
+    checkIndex(index, this.size + 1);
+    Node2<T> prev = node(index).prev;
+    beginWrite();
+    try {
+      link(prev, val, index);
+      ++this.size;
+    } finally {
+      endWrite();
+    } // try/finally
+    noteChange();
+  } // add(int, T)
+
+  /**
+   * Remove the value at the given index.  Returns that value.
+   *
+   * @throws IndexOutOfBoundsException if index is not in [0, size).
+   */
+  public T remove(int index) {
+    checkIndex(index, this.size);
+    Node2<T> node = node(index);
+    T val = node.value;
+    beginWrite();
+    try {
+      if (this.lazy) {
+        kill(node);
+        return val;
+      } // if
+      unlink(node, index);
+      --this.size;
+    } finally {
+      endWrite();
+    } // try/finally
+    noteChange();
+    return val;
+  } // remove(int)
+
+  // +------------------------+--------------------------------------------
+  // | Splicing and Splitting |
+  // +------------------------+
+
+  /**
+   * Move all of the values of other to the end of this list, leaving other
+   * empty.  Takes constant time, plus the time to index the moved values
+   * if either index is on (see spliceAt).
+   *
+   * @throws IllegalArgumentException if other is this list.
+   */
+  public void addAll(SimpleCDLL<T> other) {
+    if (other == this) {
+      throw new IllegalArgumentException("cannot add a list to itself");
+    } // if
+    long start = bulkStart();
+    compact();
+    beginWrite();
+    other.beginWrite();
+    try {
+      spliceAfter(this.dummy.prev, other, this.size);
+    } finally {
+      other.endWrite();
+      endWrite();
+    } // try/finally
+    noteChange();
+    bulkEnd(start);
+  } // addAll(SimpleCDLL<T>)
+
+  /**
+   * Move all of the values of other into this list at the cursor of it,
+   * leaving other empty.  The cursor ends up after the moved values, as
+   * if they had been added one by one with it.add.  Takes constant time,
+   * plus the time to index the moved values if either index is on:
+   * expected O(log n) per value for the skip index (or O(n) for all of
+   * them, if they are at least half the list), and expected O(1) per
+   * value for the value index.
+   *
+   * Other iterators over either list become invalid; it stays valid.
+   *
+   * @throws IllegalArgumentException if it is not an iterator over this
+   *   list, or if other is this list.
+   * @throws ConcurrentModificationException if it is no longer valid.
+   */
+  public void spliceAt(ListIterator<T> it, SimpleCDLL<T> other) {
+    CDLLIterator cursor = cursor(it);
+    if (other == this) {
+      throw new IllegalArgumentException("cannot splice a list into itself");
+    } // if
+    long start = bulkStart();
+    compact();
+    cursor.settle();
+    int moved = other.size;
+    if (moved > 0) {
+      beginWrite();
+      other.beginWrite();
+      try {
+        cursor.prev = spliceAfter(cursor.prev, other, cursor.pos);
+        cursor.pos += moved;
+      } finally {
+        other.endWrite();
+        endWrite();
+      } // try/finally
+    } // if
+    cursor.update = null;
+    cursor.incrementNumChanges();
+    bulkEnd(start);
+  } // spliceAt(ListIterator<T>, SimpleCDLL<T>)
+
+  /**
+   * Add the values, in order, at the cursor of it, as if by calling
+   * it.add on each, but building the new nodes off the list and linking
+   * them in at once.  (See CDLLIterator.addAll.)
+   *
+   * @throws IllegalArgumentException if it is not an iterator over this
+   *   list.
+   * @throws ConcurrentModificationException if it is no longer valid.
+   */
+  public void addAllAt(ListIterator<T> it, Collection<? extends T> values) {
+    cursor(it).addAll(values);
+  } // addAllAt(ListIterator<T>, Collection<? extends T>)
+
+  /**
+   * Split this list at the cursor of it.  The values after the cursor
+   * are moved, in order, to a new list, which we return; the values
+   * before the cursor stay.  Afterwards the cursor is at the end of this
+   * list.  Unlike addAll and spliceAt, this takes time proportional to
+   * the smaller of the two parts, whose nodes must be marked as belonging
+   * to their new list (see Owner), plus the time to move the moved
+   * values between value indexes if it is on.  A skip index is split in
+   * expected O(log n) time.
+   *
+   * Other iterators over this list become invalid; it stays valid.
+   *
+   * @throws IllegalArgumentException if it is not an iterator over this
+   *   list.
+   * @throws ConcurrentModificationException if it is no longer valid.
+   */
+  public SimpleCDLL<T> splitAt(ListIterator<T> it) {
+    CDLLIterator cursor = cursor(it);
+    long start = bulkStart();
+    compact();
+    cursor.settle();
+    SimpleCDLL<T> tail = new SimpleCDLL<T>(this.poolCapacity);
+    int moved = this.size - cursor.pos;
+    if (moved > 0) {
+      beginWrite();
+      try {
+        Node2<T> first = cursor.next;
+        Node2<T> last = this.dummy.prev;
+
+        // Close up this list after the cursor
+        cursor.prev.next = this.dummy;
+        this.dummy.prev = cursor.prev;
+        cursor.next = this.dummy;
+
+        // And ring the moved chain with the new dummy
+        tail.dummy.next = first;
+        first.prev = tail.dummy;
+        tail.dummy.prev = last;
+        last.next = tail.dummy;
+        if (this.valueIndex != null) {
+          for (Node2<T> node = first; node != tail.dummy; node = node.next) {
+            this.valueIndex.remove(node);
+          } // for
+        } // if
+
+        // Give the smaller part a new owner token
+        if (moved <= this.size - moved) {
+          for (Node2<T> node = first; node != tail.dummy; node = node.next) {
+            node.owner = tail.owner;
+          } // for
+        } else {
+          tail.owner = this.owner;
+          this.owner = new Owner();
+          for (Node2<T> node = this.dummy.next; node != this.dummy;
+              node = node.next) {
+            node.owner = this.owner;
+          } // for
+        } // if/else
+
+        this.size -= moved;
+        tail.size = moved;
+        if (this.index != null) {
+          tail.index = this.index.split(this.size, tail.dummy);
+        } // if
+      } finally {
+        endWrite();
+      } // try/finally
+    } // if
+    if (this.index != null && tail.index == null) {
+      tail.enableIndex(this.index.probability);
+    } // if
+    if (this.valueIndex != null) {
+      tail.enableValueIndex();
+    } // if
+    if (this.lazy) {
+      tail.enableLazyRemoval(this.maxDeadRatio);
+    } // if
+    cursor.update = null;
+    cursor.incrementNumChanges();
+    bulkEnd(start);
+    return tail;
+  } // splitAt(ListIterator<T>)
+
+  // +--------------+------------------------------------------------------
+  // | Node Handles |
+  // +--------------+
+
+  // A handle is the node that holds a value.  Holding on to it lets us
+  // move or remove the value in constant time, without searching for
+  // it.  A handle stays valid until its value is removed.  Handle
+  // operations reject, with IllegalArgumentException, handles whose
+  // values have been removed and handles from other lists (each node
+  // carries its list's owner token; see Owner).  They cannot tell when
+  // the list has since reused a pooled node for another value, so a
+  // handle must still not be used once its value is removed.  With a
+  // skip index, moving or removing by handle also finds the value's index
+  // and updates the skip index in place, in expected O(log n) time.
+
+  /**
+   * Add a value at the front of the list.  Returns its handle.
+   */
+  public Node2<T> addFirst(T val) {
+    Node2<T> node;
+    beginWrite();
+    try {
+      node = link(this.dummy, val, 0);
+      ++this.size;
+    } finally {
+      endWrite();
+    } // try/finally
+    noteChange();
+    return node;
+  } // addFirst(T)
+
+  /**
+   * Add a value at the back of the list.  Returns its handle.
+   */
+  public Node2<T> addLast(T val) {
+    Node2<T> node;
+    beginWrite();
+    try {
+      node = link(this.dummy.prev, val, this.size);
+      ++this.size;
+    } finally {
+      endWrite();
+    } // try/finally
+    noteChange();
+    return node;
+  } // addLast(T)
+
+  /**
+   * Get the handle of the value at the front of the list, or null if the
+   * list is empty.
+   */
+  public Node2<T> firstHandle() {
+    if (this.size == 0) {
+      return null;
+    } // if
+    Node2<T> node = this.dummy.next;
+    while (node.value == DEAD) {
+      node = node.next;
+    } // while
+    return node;
+  } // firstHandle()
+
+  /**
+   * Get the handle of the value at the back of the list, or null if the
+   * list is empty.
+   */
+  public Node2<T> lastHandle() {
+    if (this.size == 0) {
+      return null;
+    } // if
+    Node2<T> node = this.dummy.prev;
+    while (node.value == DEAD) {
+      node = node.prev;
+    } // while
+    return node;
+  } // lastHandle()
+
+  /**
+   * Move the value with the given handle to the front of the list.  The
+   * handle stays valid.
+   *
+   * @throws IllegalArgumentException if handle is not the handle of a
+   *   value in this list.
+   */
+  public void moveToFront(Node2<T> handle) {
+    checkHandle(handle);
+    if (this.dummy.next != handle) {
+      beginWrite();
+      try {
+        unindex(handle);
+        handle.remove();
+        this.dummy.linkAfter(handle);
+        if (this.index != null) {
+          this.index.insert(0, handle);
+        } // if
+      } finally {
+        endWrite();
+      } // try/finally
+      noteChange();
+    } // if
+  } // moveToFront(Node2<T>)
+
+  /**
+   * Move the value with the given handle to the back of the list.  The
+   * handle stays valid.
+   *
+   * @throws IllegalArgumentException if handle is not the handle of a
+   *   value in this list.
+   */
+  public void moveToBack(Node2<T> handle) {
+    checkHandle(handle);
+    if (this.dummy.prev != handle) {
+      beginWrite();
+      try {
+        unindex(handle);
+        handle.remove();
+        this.dummy.prev.linkAfter(handle);
+        if (this.index != null) {
+          this.index.insert(this.size - 1, handle);
+        } // if
+      } finally {
+        endWrite();
+      } // try/finally
+      noteChange();
+    } // if
+  } // moveToBack(Node2<T>)
+
+  /**
+   * Remove the value with the given handle.  Returns that value.  The
+   * handle is no longer valid.  In lazy mode, this marks the node dead
+   * and does not invalidate iterators.
+   *
+   * @throws IllegalArgumentException if handle is not the handle of a
+   *   value in this list.
+   */
+  public T remove(Node2<T> handle) {
+    checkHandle(handle);
+    T val = handle.value;
+    beginWrite();
+    try {
+      if (this.lazy) {
+        kill(handle);
+        return val;
+      } // if
+      if (this.valueIndex != null) {
+        this.valueIndex.remove(handle);
+      } // if
+      unindex(handle);
+      handle.remove();
+      recycle(handle);
+      --this.size;
+    } finally {
+      endWrite();
+    } // try/finally
+    if (CDLLMetrics.ENABLED && this.metrics != null) {
+      this.metrics.removes.increment();
+    } // if
+    noteChange();
+    return val;
+  } // remove(Node2<T>)
+
+  // +-----------+---------------------------------------------------------
+  // | Searching |
+  // +-----------+
+
+  /**
+   * Determine whether val is in the list.  Takes expected O(1) time with
+   * the value index on, and O(n) time otherwise.
+   */
+  public boolean contains(Object val) {
+    if (this.valueIndex != null) {
+      return this.valueIndex.contains(val);
+    } // if
+    return find(val) != null;
+  } // contains(Object)
+
+  /**
+   * Get the index of the first occurrence of val, or -1 if val is not in
+   * the list.  A linked list has to count its way to a position, so
+   * this takes O(n) time, but with the value index on, a value that is
+   * not in the list is reported in expected O(1) time.
+   */
+  public int indexOf(Object val) {
+    if (this.valueIndex != null && !this.valueIndex.contains(val)) {
+      return -1;
+    } // if
+    int i = 0;
+    for (Node2<T> node = this.dummy.next; node != this.dummy;
+        node = node.next) {
+      if (node.value != DEAD) {
+        if (Objects.equals(val, node.value)) {
+          return i;
+        } // if
+        ++i;
+      } // if
+    } // for
+    return -1;
+  } // indexOf(Object)
+
+  /**
+   * Remove an occurrence of val (see find), as if by its handle.
+   * Returns true if val was in the list.  Takes expected O(1) time with
+   * the value index on (expected O(log n) with the skip index on too),
+   * and O(n) time otherwise.
+   */
+  public boolean remove(Object val) {
+    Node2<T> node = find(val);
+    if (node == null) {
+      return false;
+    } // if
+    remove(node);
+    return true;
+  } // remove(Object)
+
+  // +-----------------+---------------------------------------------------
+  // | Bulk Operations |
+  // +-----------------+
+
+  /**
+   * Remove every value for which pred holds, in one pass.  Returns true
+   * if we removed anything.
+   *
+   * Unlike a loop of next and remove, we count the whole pass as one
+   * change.  We check that pred has not changed the list (including by
+   * removing lazily) after each call, before we step to the next node,
+   * which pred may have removed.
+   *
+   * @throws ConcurrentModificationException if pred changed the list.
+   *   The values removed before it did stay removed.
+   */
+  public boolean removeIf(Predicate<? super T> pred) {
+    Objects.requireNonNull(pred);
+    long start = bulkStart();
+    compact();
+    long expected = this.numChanges;
+    long deaths = this.numDeaths;
+    int removed = 0;
+    beginWrite();
+    try {
+      Node2<T> node = this.dummy.next;
+      while (node != this.dummy) {
+        Node2<T> next = node.next;
+        boolean remove = pred.test(node.value);
+        if (this.numChanges != expected || this.numDeaths != deaths) {
+          throw failFast();
+        } // if
+        if (remove) {
+          if (this.valueIndex != null) {
+            this.valueIndex.remove(node);
+          } // if
+          node.remove();
+          recycle(node);
+          --this.size;
+          ++removed;
+        } // if
+        node = next;
+      } // while
+    } finally {
+      if (removed > 0) {
+        if (this.index != null) {
+          this.index.rebuild(this.size);
+        } // if
+        noteChange();
+        if (CDLLMetrics.ENABLED && this.metrics != null) {
+          this.metrics.removes.add(removed);
+        } // if
+      } // if
+      endWrite();
+    } // try/finally
+    bulkEnd(start);
+    return removed > 0;
+  } // removeIf(Predicate<? super T>)
+
+  /**
+   * Remove every value that is not in c, in one pass.  Returns true if we
+   * removed anything.
+   */
+  public boolean retainAll(Collection<?> c) {
+    Objects.requireNonNull(c);
+    return removeIf((val) -> !c.contains(val));
+  } // retainAll(Collection<?>)
+
+  /**
+   * Replace every value with the result of applying op to it, in one
+   * pass.  Like set, this does not change the structure of the list, so
+   * it does not invalidate iterators.  We check that op has not changed
+   * the structure of the list after each call, before we touch the node.
+   *
+   * @throws ConcurrentModificationException if op changed the structure
+   *   of the list.  The values replaced before it did stay replaced.
+   */
+  public void replaceAll(UnaryOperator<T> op) {
+    Objects.requireNonNull(op);
+    long start = bulkStart();
+    compact();
+    long expected = this.numChanges;
+    long deaths = this.numDeaths;
+    beginWrite();
+    try {
+      for (Node2<T> node = this.dummy.next; node != this.dummy;
+          node = node.next) {
+        T val = op.apply(node.value);
+        if (this.numChanges != expected || this.numDeaths != deaths) {
+          throw failFast();
+        } // if
+        setValue(node, val);
+      } // for
+    } finally {
+      // Even if op threw, some values may have changed
+      noteSet();
+      endWrite();
+    } // try/finally
+    bulkEnd(start);
+  } // replaceAll(UnaryOperator<T>)
+
+  /**
+   * Replace every value with the result of applying op to it, like
+   * replaceAll, but on the common ForkJoinPool: the list is cut into
+   * segments of about equal length (see segments), which are processed
+   * in parallel.  op must be safe to call from several threads at once.
+   *
+   * @throws ConcurrentModificationException if op changed the structure
+   *   of the list.
+   */
+  public void parallelReplaceAll(UnaryOperator<T> op) {
+    Objects.requireNonNull(op);
+    beginWrite();
+    try {
+      forEachSegment((first, end) -> {
+        for (Node2<T> node = first; node != end; node = node.next) {
+          node.value = op.apply(node.value);
+        } // for
+        return null;
+      }, (a, b) -> null);
+    } finally {
+      // The value index is not thread-safe, so we rebuild it afterwards
+      if (this.valueIndex != null) {
+        this.valueIndex.rebuild();
+      } // if
+      // Even if op threw, some values may have changed
+      noteSet();
+      endWrite();
+    } // try/finally
+  } // parallelReplaceAll(UnaryOperator<T>)
+
+  /**
+   * Apply action to every value on the common ForkJoinPool, segment by
+   * segment.  Values in different segments are visited in no particular
+   * order; action must be safe to call from several threads at once.
+   *
+   * @throws ConcurrentModificationException if action changed the list.
+   */
+  public void parallelForEach(Consumer<? super T> action) {
+    Objects.requireNonNull(action);
+    forEachSegment((first, end) -> {
+      for (Node2<T> node = first; node != end; node = node.next) {
+        action.accept(node.value);
+      } // for
+      return null;
+    }, (a, b) -> null);
+  } // parallelForEach(Consumer<? super T>)
+
+  /**
+   * Combine the values with op, which must be associative, on the common
+   * ForkJoinPool.  Each segment is reduced from identity, in order, and
+   * the results of neighboring segments are combined, so op need not be
+   * commutative.  Returns identity if the list is empty.
+   *
+   * @throws ConcurrentModificationException if op changed the list.
+   */
+  public T parallelReduce(T identity, BinaryOperator<T> op) {
+    return parallelReduce(identity, op, op);
+  } // parallelReduce(T, BinaryOperator<T>)
+
+  /**
+   * Reduce the values to a result of another type, as with
+   * Stream.reduce: each segment folds its values into identity with
+   * accumulator, and the results of neighboring segments are merged with
+   * combiner.
+   *
+   * @throws ConcurrentModificationException if accumulator or combiner
+   *   changed the list.
+   */
+  public <R> R parallelReduce(R identity,
+      BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner) {
+    Objects.requireNonNull(accumulator);
+    Objects.requireNonNull(combiner);
+    if (this.size == 0) {
+      return identity;
+    } // if
+    return forEachSegment((first, end) -> {
+      R result = identity;
+      for (Node2<T> node = first; node != end; node = node.next) {
+        result = accumulator.apply(result, node.value);
+      } // for
+      return result;
+    }, combiner);
+  } // parallelReduce(R, BiFunction<R, ? super T, R>, BinaryOperator<R>)
+
+  // +---------+-----------------------------------------------------------
+  // | Sorting |
+  // +---------+
+
+  /**
+   * Sort the values with c, or by their natural order if c is null.
+   *
+   * The sort is a stable, bottom-up merge sort that relinks the nodes we
+   * already have, so it allocates no nodes and no array of values.  The
+   * merges relink only the next fields; the prev fields are set in one
+   * pass at the end.  If c throws, we rebuild the next fields from the
+   * untouched prev fields, so the list is left as it was.
+   *
+   * Sorting changes the structure of the list, so it invalidates
+   * iterators.
+   *
+   * @throws ConcurrentModificationException if c changed the list.
+   */
+  public void sort(Comparator<? super T> c) {
+    sort(c, false);
+  } // sort(Comparator<? super T>)
+
+  /**
+   * Sort the values like sort, but on the common ForkJoinPool: we cut the
+   * list into segments, sort the segments in parallel and merge them in
+   * pairs, also in parallel.  Lists too short to be worth dividing are
+   * sorted by sort.
+   *
+   * @throws ConcurrentModificationException if c changed the list.
+   */
+  public void parallelSort(Comparator<? super T> c) {
+    sort(c, true);
+  } // parallelSort(Comparator<? super T>)
+
+  // +-----------+---------------------------------------------------------
+  // | Snapshots |
+  // +-----------+
+
+  /**
+   * Get an unmodifiable copy of the values in the list as they are now.
+   * Later changes to the list do not affect it, and it never throws
+   * ConcurrentModificationException.
+   *
+   * Taking a snapshot costs O(n) the first time after the list changes;
+   * until the list changes again, we hand out the same snapshot.  So a
+   * list that is read far more often than it is written pays for one
+   * copy per write, at most, rather than for a traversal per read.
+   *
+   * The list itself is not thread-safe.  Unless snapshot publishing is
+   * on (see enableSnapshotPublishing), take snapshots only in the thread
+   * that writes the list; the snapshots may then be handed to, and read
+   * by, any number of other threads without locking.  With publishing
+   * on, any thread may take snapshots, at the costs described there.
+   */
+  public List<T> snapshot() {
+    if (this.publishing && Thread.currentThread() != this.writer) {
+      return readSnapshot();
+    } // if
+    List<T> snap = this.snapshot;
+    if (snap == null || this.snapshotChanges != this.numChanges
+        || this.snapshotSets != this.numSets) {
+      long start = bulkStart();
+      snap = copy();
+      this.snapshot = snap;
+      this.snapshotChanges = this.numChanges;
+      this.snapshotSets = this.numSets;
+      bulkEnd(start);
+    } // if
+    if (this.publishing && this.writeDepth == 0) {
+      // Let the readers have it too
+      Published<T> pub = this.published;
+      if (pub == null || pub.version != this.version) {
+        this.published = new Published<T>(this.version, snap);
+      } // if
+    } // if
+    return snap;
+  } // snapshot()
+
+  /**
+   * Get a read-only iterator over a snapshot of the values in the list.
+   * (See snapshot.)
+   */
+  public ListIterator<T> snapshotIterator() {
+    return snapshot().listIterator();
+  } // snapshotIterator()
+
+  /**
+   * Let threads other than the writer call snapshot and snapshotIterator
+   * while the writer goes on changing the list.  Readers never see the
+   * list mid-change.
+   *
+   * Writes then cost O(1) more, for marking their start and end.  We copy
+   * the list only when a reader asks for a snapshot and none has been
+   * taken since the last write, so a reader may pay O(n), but readers
+   * share one copy per version of the list.  A reader copies the list
+   * itself while the writer is between writes, and tries again if the
+   * writer started one meanwhile; a reader that arrives during a write
+   * (or whose copy was spoiled by one) waits for the writer to finish it
+   * and publish a copy.  So snapshots are cheap for lists that are read
+   * far more often than they are written, but a writer that keeps
+   * writing, with readers asking, still copies once per write, as
+   * CopyOnWriteArrayList does.
+   *
+   * Call this in the writing thread before handing the list to readers;
+   * only that thread may write the list afterwards.
+   */
+  public void enableSnapshotPublishing() {
+    this.writer = Thread.currentThread();
+    this.publishing = true;
+  } // enableSnapshotPublishing()
+
+  /**
+   * Stop letting other threads take snapshots.  Afterwards, take
+   * snapshots only in the writing thread.
+   */
+  public void disableSnapshotPublishing() {
+    if (this.snapshotWanted) {
+      this.snapshotWanted = false;
+      snapshot();
+    } // if
+    this.publishing = false;
+    this.writer = null;
+  } // disableSnapshotPublishing()
+
+  // +---------+-----------------------------------------------------------
+  // | Metrics |
+  // +---------+
+
+  /**
+   * Start keeping counts of what this list does, and publish them
+   * through JMX under the given name.  Returns the counts.
+   *
+   * @throws IllegalStateException if metrics are off (see CDLLMetrics).
+   * @throws IllegalArgumentException if the name is taken.
+   */
+  public CDLLMetrics attachMetrics(String name) {
+    detachMetrics();
+    this.metrics = new CDLLMetrics(name);
+    return this.metrics;
+  } // attachMetrics(String)
+
+  /**
+   * Stop keeping counts, and stop publishing them.
+   */
+  public void detachMetrics() {
+    if (this.metrics != null) {
+      this.metrics.unpublish();
+      this.metrics = null;
+    } // if
+  } // detachMetrics()
+
+  // +------------+--------------------------------------------------------
+  // | Skip Index |
+  // +------------+
+
+  /**
+   * Keep a skip index over the list so that positional access, and
+   * positional insertion and removal, take expected O(log n) time.  The
+   * index has about p / (1 - p) entries per value; the default p of 1/4
+   * gives about one entry per three values.
+   */
+  public void enableIndex() {
+    enableIndex(0.25);
+  } // enableIndex()
+
+  /**
+   * Keep a skip index over the list in which each level holds (about) a
+   * fraction p of the entries of the level below.
+   *
+   * @throws IllegalStateException if lazy removal is enabled.
+   */
+  public void enableIndex(double p) {
+    if (this.lazy) {
+      throw new IllegalStateException("lazy removal is enabled");
+    } // if
+    this.index = new SkipIndex<T>(this.dummy, this.size, p);
+  } // enableIndex(double)
+
+  /**
+   * Stop keeping a skip index.
+   */
+  public void disableIndex() {
+    this.index = null;
+  } // disableIndex()
+
+  // +--------------+------------------------------------------------------
+  // | Lazy Removal |
+  // +--------------+
+
+  /**
+   * Remove lazily, compacting once a quarter of the nodes are dead.
+   * (See enableLazyRemoval(double).)
+   */
+  public void enableLazyRemoval() {
+    enableLazyRemoval(0.25);
+  } // enableLazyRemoval()
+
+  /**
+   * Remove lazily: removing a value (through an iterator, by index or by
+   * handle) marks its node dead, in constant time, rather than unlinking
+   * it.  Iterators step over dead nodes, and size counts only the live
+   * ones.  Since the structure of the list does not change, a lazy
+   * removal does not invalidate other iterators.  (An iterator that
+   * tries to remove or set a value that another has removed fails fast.)
+   * After another iterator removes values, an iterator's nextIndex and
+   * previousIndex recount its position, in O(n) time.  The skip index
+   * cannot be used with lazy removal.
+   *
+   * Once more than maxDeadRatio of the nodes are dead (and there are at
+   * least MIN_DEAD of them), we unlink them all in one pass (see
+   * compact).  Dead nodes are not pooled.
+   *
+   * @throws IllegalArgumentException if maxDeadRatio is not in (0, 1).
+   * @throws IllegalStateException if the skip index is enabled.
+   */
+  public void enableLazyRemoval(double maxDeadRatio) {
+    if (!(maxDeadRatio > 0 && maxDeadRatio < 1)) {
+      throw new IllegalArgumentException("bad dead ratio: " + maxDeadRatio);
+    } // if
+    if (this.index != null) {
+      throw new IllegalStateException("the skip index is enabled");
+    } // if
+    this.lazy = true;
+    this.maxDeadRatio = maxDeadRatio;
+  } // enableLazyRemoval(double)
+
+  /**
+   * Stop removing lazily, compacting the list first.  Invalidates
+   * iterators, which may be resting on dead nodes.
+   */
+  public void disableLazyRemoval() {
+    if (this.lazy) {
+      compact();
+      this.lazy = false;
+      noteChange();
+    } // if
+  } // disableLazyRemoval()
+
+  /**
+   * Unlink every dead node, in one pass.  Iterators stay valid: an
+   * unlinked dead node keeps its links, so an iterator resting on one
+   * still finds its way back into the list.  Bulk operations compact
+   * before they start.
+   */
+  public void compact() {
+    if (this.numDead == 0) {
+      return;
+    } // if
+    long start = bulkStart();
+    beginWrite();
+    for (Node2<T> node = this.dummy.next; node != this.dummy;
+        node = node.next) {
+      if (node.value == DEAD) {
+        unlinkDead(node);
+      } // if
+    } // for
+    endWrite();
+    bulkEnd(start);
+  } // compact()
+
+  // +-------------+-------------------------------------------------------
+  // | Value Index |
+  // +-------------+
+
+  /**
+   * Keep a hash index from values to the nodes that hold them, so that
+   * contains, remove(Object) and listIteratorAt take expected O(1) time.
+   * Every insertion, removal and replacement of a value then also
+   * updates the index, and bulk operations that move values between
+   * lists (addAll, spliceAt and splitAt) index or unindex them, in time
+   * proportional to the number moved.  Lists without the index pay
+   * nothing for it.
+   *
+   * Values are compared with equals and hashed with hashCode, so a
+   * value must not change in a way that affects either while it is in
+   * the list.
+   */
+  public void enableValueIndex() {
+    this.valueIndex = new ValueIndex<T>(this.dummy);
+  } // enableValueIndex()
+
+  /**
+   * Stop keeping a value index.
+   */
+  public void disableValueIndex() {
+    this.valueIndex = null;
+  } // disableValueIndex()
 
   // +----------------+----------------------------------------------------
   // | Helper Methods |
   // +----------------+
 
+  /**
+   * Make sure that 0 <= index < bound.
+   *
+   * @throws IndexOutOfBoundsException if not.
+   */
+  static void checkIndex(int index, int bound) {
+    if (index < 0 || index >= bound) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+          + bound);
+    } // if
+  } // checkIndex(int, int)
+
+  /**
+   * Find the node at the given index, where 0 <= index <= size.  (The
+   * node at index size is the dummy.)
+   *
+   * We walk from whichever is closest: the front (the dummy is at index
+   * -1), the back (the dummy is also at index size), or the finger.  If
+   * all of those are far away and we have a skip index, we use that
+   * instead.  While there are dead nodes, we use liveNode.
+   */
+  Node2<T> node(int index) {
+    if (this.numDead > 0) {
+      return liveNode(index);
+    } // if
+    Node2<T> node = this.dummy;
+    int from = -1;
+    int distance = index + 1;
+    if (this.size - index < distance) {
+      from = this.size;
+      distance = this.size - index;
+    } // if
+    if (this.finger != null && this.fingerChanges == this.numChanges
+        && Math.abs(index - this.fingerIndex) < distance) {
+      node = this.finger;
+      from = this.fingerIndex;
+      distance = Math.abs(index - this.fingerIndex);
+    } // if
+    if (this.index != null && distance > INDEX_THRESHOLD) {
+      node = this.index.node(index);
+      from = index;
+    } // if
+
+    if (CDLLMetrics.ENABLED && this.metrics != null) {
+      this.metrics.seeks.increment();
+      this.metrics.seekSteps.add(Math.abs(index - from));
+    } // if
+
+    // Walk to the node
+    for (; from < index; from++) {
+      node = node.next;
+    } // for
+    for (; from > index; from--) {
+      node = node.prev;
+    } // for
+
+    // Remember where we are
+    if (node != this.dummy) {
+      this.finger = node;
+      this.fingerIndex = index;
+      this.fingerChanges = this.numChanges;
+    } // if
+    return node;
+  } // node(int)
+
+  /**
+   * Find the node holding the value at the given index, where 0 <= index
+   * <= size, stepping over dead nodes.  (The node at index size is the
+   * dummy.)  We walk from whichever end is closer.
+   */
+  Node2<T> liveNode(int index) {
+    if (CDLLMetrics.ENABLED && this.metrics != null) {
+      this.metrics.seeks.increment();
+      this.metrics.seekSteps.add(Math.min(index + 1, this.size - index));
+    } // if
+    Node2<T> node = this.dummy;
+    if (index < this.size - index) {
+      for (int i = -1; i < index; ) {
+        node = node.next;
+        if (node.value != DEAD) {
+          ++i;
+        } // if
+      } // for
+    } else {
+      for (int i = this.size; i > index; ) {
+        node = node.prev;
+        if (node.value != DEAD) {
+          --i;
+        } // if
+      } // for
+    } // if/else
+    return node;
+  } // liveNode(int)
+
+  /**
+   * Step forward from node over any dead nodes, unlinking those still in
+   * the list, and return the first node that is not dead (node itself,
+   * if it is not).  Unlinking as we go keeps cursors that remove in one
+   * neighborhood from stepping over the same dead nodes again and again.
+   */
+  Node2<T> skipForward(Node2<T> node) {
+    while (node.value == DEAD) {
+      Node2<T> dead = node;
+      node = node.next;
+      unlinkDead(dead);
+    } // while
+    return node;
+  } // skipForward(Node2<T>)
+
+  /**
+   * Step backward from node over any dead nodes.  (See skipForward.)
+   */
+  Node2<T> skipBackward(Node2<T> node) {
+    while (node.value == DEAD) {
+      Node2<T> dead = node;
+      node = node.prev;
+      unlinkDead(dead);
+    } // while
+    return node;
+  } // skipBackward(Node2<T>)
+
+  /**
+   * Unlink a dead node if it is still in the list, leaving its own links
+   * alone so that cursors resting on it can find their way back.  A
+   * node that has been unlinked is never linked again, so its
+   * predecessor no longer links to it.
+   */
+  void unlinkDead(Node2<T> node) {
+    if (node.prev.next == node) {
+      node.prev.next = node.next;
+      node.next.prev = node.prev;
+      --this.numDead;
+    } // if
+  } // unlinkDead(Node2<T>)
+
+  /**
+   * Remove the value in a node lazily, by marking the node dead, and
+   * compact if too many nodes are dead.
+   */
+  @SuppressWarnings("unchecked")
+  void kill(Node2<T> node) {
+    if (this.valueIndex != null) {
+      this.valueIndex.remove(node);
+    } // if
+    node.value = (T) DEAD;
+    --this.size;
+    ++this.numDead;
+    ++this.numDeaths;
+    noteSet();
+    // The finger's index may have changed
+    this.finger = null;
+    if (CDLLMetrics.ENABLED && this.metrics != null) {
+      this.metrics.removes.increment();
+    } // if
+    if (this.numDead >= MIN_DEAD
+        && this.numDead > this.maxDeadRatio * (this.size + this.numDead)) {
+      compact();
+    } // if
+  } // kill(Node2<T>)
+
+  /**
+   * Give a node a new value, keeping the value index, if any, current.
+   */
+  void setValue(Node2<T> node, T val) {
+    if (this.valueIndex != null) {
+      this.valueIndex.remove(node);
+      node.value = val;
+      this.valueIndex.add(node);
+    } else {
+      node.value = val;
+    } // if/else
+  } // setValue(Node2<T>, T)
+
+  /**
+   * Find the node holding an occurrence of val, or null if there is
+   * none.  Without the value index, we walk from the front and find the
+   * first occurrence; with it, we find one of the occurrences, which one
+   * being unspecified.
+   */
+  Node2<T> find(Object val) {
+    if (this.valueIndex != null) {
+      return this.valueIndex.find(val);
+    } // if
+    for (Node2<T> node = this.dummy.next; node != this.dummy;
+        node = node.next) {
+      if (node.value != DEAD && Objects.equals(val, node.value)) {
+        return node;
+      } // if
+    } // for
+    return null;
+  } // find(Object)
+
+  /**
+   * Get the iterator over this list behind it, making sure that it is
+   * still valid.
+   *
+   * @throws IllegalArgumentException if it is not an iterator over this
+   *   list.
+   * @throws ConcurrentModificationException if it is no longer valid.
+   */
+  CDLLIterator cursor(ListIterator<T> it) {
+    if (!(it instanceof SimpleCDLL.CDLLIterator)
+        || ((SimpleCDLL<?>.CDLLIterator) it).list() != this) {
+      throw new IllegalArgumentException("not an iterator over this list");
+    } // if
+    CDLLIterator cursor = (CDLLIterator) it;
+    cursor.checkConcurrentModification();
+    return cursor;
+  } // cursor(ListIterator<T>)
+
+  /**
+   * Move the nodes of other, in order, to just after node, so that the
+   * first ends up at the given index, leaving other empty.  Updates the
+   * sizes, the skip and value indexes and the number of changes of other
+   * (but not of this list), and merges other's owner token into ours.
+   * Returns the last node moved, or node if other was empty.  This list
+   * must have no dead nodes; other's are unlinked first.
+   */
+  Node2<T> spliceAfter(Node2<T> node, SimpleCDLL<T> other, int index) {
+    other.compact();
+    if (other.size == 0) {
+      return node;
+    } // if
+    Node2<T> first = other.dummy.next;
+    Node2<T> last = other.dummy.prev;
+    last.next = node.next;
+    node.next.prev = last;
+    node.next = first;
+    first.prev = node;
+
+    this.size += other.size;
+    indexChain(first, index, other.size);
+    if (this.valueIndex != null) {
+      for (Node2<T> moved = first; moved != last.next; moved = moved.next) {
+        this.valueIndex.add(moved);
+      } // for
+    } // if
+    // The moved nodes are ours now, without our visiting them
+    other.owner.parent = this.owner;
+    other.owner = new Owner();
+
+    other.dummy.next = other.dummy;
+    other.dummy.prev = other.dummy;
+    other.size = 0;
+    if (other.index != null) {
+      other.index.rebuild(0);
+    } // if
+    if (other.valueIndex != null) {
+      other.valueIndex.clear();
+    } // if
+    other.noteChange();
+    return last;
+  } // spliceAfter(Node2<T>, SimpleCDLL<T>, int)
+
   /**
    * Returns the node representing the front of the list, which is the node
    * following the dummy node.
@@ -66,6 +1449,487 @@ public class SimpleCDLL<T> implements SimpleList<T> {
     return this.dummy.next;
   }
 
+  /**
+   * Insert a value after the given node, reusing a pooled node when one
+   * is available.  The new node ends up at the given index.  Returns the
+   * new node.
+   */
+  Node2<T> link(Node2<T> node, T val, int index) {
+    Node2<T> tmp = this.pool;
+    if (tmp == null) {
+      tmp = node.insertAfter(val);
+    } else {
+      this.pool = tmp.next;
+      --this.poolSize;
+      tmp.value = val;
+      node.linkAfter(tmp);
+    } // if/else
+    tmp.owner = this.owner;
+    if (this.index != null) {
+      this.index.insert(index, tmp);
+    } // if
+    if (this.valueIndex != null) {
+      this.valueIndex.add(tmp);
+    } // if
+    if (CDLLMetrics.ENABLED && this.metrics != null) {
+      this.metrics.adds.increment();
+    } // if
+    return tmp;
+  } // link(Node2<T>, T, int)
+
+  /**
+   * Remove a node from the list, keeping it for reuse if the pool has
+   * room.
+   *
+   * A recycled node may come back anywhere in the list, so nothing may
+   * keep using it once it is removed.  Iterators holding it are stale
+   * and are caught by the numChanges check before they touch it.
+   */
+  void unlink(Node2<T> node, int index) {
+    if (this.index != null) {
+      this.index.remove(index, node);
+    } // if
+    if (this.valueIndex != null) {
+      this.valueIndex.remove(node);
+    } // if
+    node.remove();
+    recycle(node);
+    if (CDLLMetrics.ENABLED && this.metrics != null) {
+      this.metrics.removes.increment();
+    } // if
+  } // unlink(Node2<T>, int)
+
+  /**
+   * The time at which a bulk operation starts, if we are keeping
+   * metrics.
+   */
+  long bulkStart() {
+    return (CDLLMetrics.ENABLED && this.metrics != null) ? System.nanoTime()
+        : 0;
+  } // bulkStart()
+
+  /**
+   * Note that a bulk operation that started at start has finished.
+   */
+  void bulkEnd(long start) {
+    if (CDLLMetrics.ENABLED && this.metrics != null) {
+      this.metrics.bulk.recordSince(start);
+    } // if
+  } // bulkEnd(long)
+
+  /**
+   * Make the exception for a failed fail-fast check, counting it if we
+   * are keeping metrics.
+   */
+  ConcurrentModificationException failFast() {
+    if (CDLLMetrics.ENABLED && this.metrics != null) {
+      this.metrics.failFasts.increment();
+    } // if
+    return new ConcurrentModificationException();
+  } // failFast()
+
+  /**
+   * Take a node found by its handle out of the skip index, if we have
+   * one, before it leaves its place in the chain.  Takes expected
+   * O(log n) time.  (See SkipIndex.indexOf.)
+   */
+  void unindex(Node2<T> node) {
+    if (this.index != null) {
+      this.index.remove(this.index.indexOf(node, this.size), node);
+    } // if
+  } // unindex(Node2<T>)
+
+  /**
+   * Add count nodes, starting with first, that have just been linked into
+   * the chain at index, to the skip index, if we have one.  Each takes
+   * expected O(log n) time; once they are at least half of the list, we
+   * rebuild the index instead, in O(n) time.
+   */
+  void indexChain(Node2<T> first, int index, int count) {
+    if (this.index == null) {
+      return;
+    } // if
+    if (count >= this.size - count) {
+      this.index.rebuild(this.size);
+      return;
+    } // if
+    Node2<T> node = first;
+    for (int i = 0; i < count; i++) {
+      this.index.insert(index + i, node);
+      node = node.next;
+    } // for
+  } // indexChain(Node2<T>, int, int)
+
+  /**
+   * Note that the structure of the list has changed.
+   */
+  void noteChange() {
+    ++this.numChanges;
+  } // noteChange()
+
+  /**
+   * Note that values have been replaced (or removed lazily).
+   */
+  void noteSet() {
+    ++this.numSets;
+  } // noteSet()
+
+  /**
+   * Note that the writer is about to change the nodes or size of the
+   * list.  While we are publishing, the outermost write makes the
+   * version odd, so that readers do not trust what they copy meanwhile.
+   * Every call must be matched by a call to endWrite, even if the write
+   * fails.
+   */
+  void beginWrite() {
+    if (this.writeDepth > 0) {
+      ++this.writeDepth;
+    } else if (this.publishing) {
+      this.writeDepth = 1;
+      // Only the writer changes the version, so this need not be atomic
+      ++this.version;
+      // Readers must see the odd version before any of the changes
+      VarHandle.storeStoreFence();
+    } // if/else
+  } // beginWrite()
+
+  /**
+   * Note that the writer has finished the changes it announced with
+   * beginWrite.  At the end of the outermost write, we make the version
+   * even again, and publish a snapshot if a reader is waiting for one.
+   */
+  void endWrite() {
+    if (this.writeDepth > 0 && --this.writeDepth == 0) {
+      ++this.version;
+      if (this.snapshotWanted) {
+        this.snapshotWanted = false;
+        snapshot();
+      } // if
+    } // if
+  } // endWrite()
+
+  /**
+   * Make sure that handle is the handle of a value in this list: that its
+   * node belongs to this list, is still linked, and is not dead.
+   *
+   * @throws IllegalArgumentException if it is not.
+   */
+  void checkHandle(Node2<T> handle) {
+    Objects.requireNonNull(handle);
+    if (!(handle.owner instanceof Owner)
+        || ((Owner) handle.owner).root() != this.owner
+        || handle.prev == null || handle.value == DEAD) {
+      throw new IllegalArgumentException(
+          "not the handle of a value in this list");
+    } // if
+  } // checkHandle(Node2<T>)
+
+  /**
+   * Copy the values into an unmodifiable list.
+   */
+  List<T> copy() {
+    Object[] values = new Object[this.size];
+    int i = 0;
+    for (Node2<T> node = this.dummy.next; node != this.dummy;
+        node = node.next) {
+      if (node.value != DEAD) {
+        values[i++] = node.value;
+      } // if
+    } // for
+    @SuppressWarnings("unchecked")
+    List<T> list = Collections.unmodifiableList(Arrays.asList((T[]) values));
+    return list;
+  } // copy()
+
+  /**
+   * Take a snapshot in a thread other than the writer, while we are
+   * publishing.  A snapshot of the version the list had when we were
+   * called, or of any later one, will do.  (See
+   * enableSnapshotPublishing.)
+   *
+   * @throws IllegalStateException if publishing stops while we wait.
+   */
+  List<T> readSnapshot() {
+    // A write that is under way has not happened yet, as far as we care
+    long since = this.version & ~1L;
+    long tried = -1;
+    while (true) {
+      Published<T> pub = this.published;
+      if (pub != null && pub.version >= since) {
+        return pub.values;
+      } // if
+      long version = this.version;
+      if ((version & 1) == 0 && version != tried) {
+        // The writer is between writes: copy the list ourselves
+        tried = version;
+        List<T> values = tryCopy();
+        // Reread the version only after everything we copied
+        VarHandle.acquireFence();
+        if (values != null && this.version == version) {
+          this.published = new Published<T>(version, values);
+          return values;
+        } // if
+      } // if
+      if (!this.publishing) {
+        throw new IllegalStateException("snapshot publishing is off");
+      } // if
+      this.snapshotWanted = true;
+      Thread.onSpinWait();
+    } // while
+  } // readSnapshot()
+
+  /**
+   * Copy the values as copy does, but from a thread other than the
+   * writer, which may be changing the list as we go.  The result means
+   * nothing unless the version is even and the same before and after.
+   * Since the links may be broken mid-write, we return null rather than
+   * walk more nodes than the list should have, or follow a null link.
+   */
+  List<T> tryCopy() {
+    try {
+      int size = this.size;
+      int steps = size + this.numDead;
+      Object[] values = new Object[size];
+      int i = 0;
+      for (Node2<T> node = this.dummy.next; node != this.dummy;
+          node = node.next) {
+        if (--steps < 0) {
+          return null;
+        } // if
+        Object val = node.value;
+        if (val != DEAD) {
+          values[i++] = val;
+        } // if
+      } // for
+      if (i != size) {
+        return null;
+      } // if
+      @SuppressWarnings("unchecked")
+      List<T> list =
+          Collections.unmodifiableList(Arrays.asList((T[]) values));
+      return list;
+    } catch (RuntimeException e) {
+      // A null link or too many live nodes; we will not use the copy
+      return null;
+    } // try/catch
+  } // tryCopy()
+
+  /**
+   * Keep a node that has been removed from the list for reuse, if the
+   * pool has room.
+   */
+  void recycle(Node2<T> node) {
+    if (this.poolSize < this.poolCapacity) {
+      node.value = null;
+      node.next = this.pool;
+      this.pool = node;
+      ++this.poolSize;
+    } // if
+  } // recycle(Node2<T>)
+
+  /**
+   * Sort the values with c (or by their natural order), on the common
+   * ForkJoinPool if parallel is set and the list is long enough.
+   */
+  @SuppressWarnings("unchecked")
+  void sort(Comparator<? super T> c, boolean parallel) {
+    Comparator<? super T> cmp =
+        (c != null) ? c : (Comparator<? super T>) Comparator.naturalOrder();
+    if (this.size < 2) {
+      return;
+    } // if
+    long start = bulkStart();
+    compact();
+    long expected = this.numChanges;
+    int count = parallel ? segmentCount(PARALLEL_SORT_THRESHOLD) : 1;
+    boolean sorted = false;
+    beginWrite();
+    try {
+      Node2<T> chain;
+      if (count == 1) {
+        this.dummy.prev.next = null;
+        chain = mergeSort(this.dummy.next, cmp);
+      } else {
+        // Cut the list into null-terminated chains, one per segment
+        Node2<T>[] chains = segments(count);
+        for (int i = 0; i < count; i++) {
+          chains[i + 1].prev.next = null;
+        } // for
+        chain = ForkJoinPool.commonPool().invoke(
+            new SortTask(chains, 0, count, cmp));
+      } // if/else
+
+      // Set the prev fields from the sorted next fields
+      Node2<T> prev = this.dummy;
+      for (Node2<T> node = chain; node != null; node = node.next) {
+        node.prev = prev;
+        prev.next = node;
+        prev = node;
+      } // for
+      prev.next = this.dummy;
+      this.dummy.prev = prev;
+      sorted = true;
+    } finally {
+      if (!sorted) {
+        // Put back the next fields from the prev fields
+        Node2<T> next = this.dummy;
+        for (Node2<T> node = this.dummy.prev; node != this.dummy;
+            node = node.prev) {
+          node.next = next;
+          next = node;
+        } // for
+        this.dummy.next = next;
+      } // if
+      endWrite();
+    } // try/finally
+    if (this.numChanges != expected) {
+      throw failFast();
+    } // if
+    if (this.index != null) {
+      this.index.rebuild(this.size);
+    } // if
+    noteChange();
+    bulkEnd(start);
+  } // sort(Comparator<? super T>, boolean)
+
+  /**
+   * Run work on each segment of the list (see segments) on the common
+   * ForkJoinPool, and combine the results of neighboring segments, in
+   * order.  Lists too short to be worth dividing are done by the calling
+   * thread.  Counts as one bulk operation.  Dead nodes are unlinked
+   * first, so work sees only live ones.  If work throws, every segment
+   * has finished or given up before the exception reaches the caller.
+   *
+   * @throws ConcurrentModificationException if the list changed
+   *   structure while we worked.
+   */
+  <R> R forEachSegment(BiFunction<Node2<T>, Node2<T>, R> work,
+      BinaryOperator<R> combine) {
+    long start = bulkStart();
+    compact();
+    long expected = this.numChanges;
+    R result;
+    if (this.size == 0) {
+      result = work.apply(this.dummy, this.dummy);
+    } else {
+      int count = segmentCount(PARALLEL_THRESHOLD);
+      SegmentTask<R> task =
+          new SegmentTask<R>(segments(count), 0, count, work, combine);
+      result = (count == 1) ? task.compute()
+          : ForkJoinPool.commonPool().invoke(task);
+    } // if/else
+    if (this.numChanges != expected) {
+      throw failFast();
+    } // if
+    bulkEnd(start);
+    return result;
+  } // forEachSegment(BiFunction<Node2<T>, Node2<T>, R>, BinaryOperator<R>)
+
+  /**
+   * The number of segments to divide the list into for a parallel bulk
+   * operation: enough to keep every thread of the common ForkJoinPool
+   * busy, but no more than one per threshold values.
+   */
+  int segmentCount(int threshold) {
+    int most = 4 * ForkJoinPool.getCommonPoolParallelism();
+    return Math.max(1, Math.min(most, this.size / threshold));
+  } // segmentCount(int)
+
+  /**
+   * Divide the list into count segments whose lengths differ by at most
+   * one, where 0 < count <= size.  Returns count + 1 nodes: segment i
+   * runs from the i'th node up to, but not including, node i + 1, and the
+   * last node is the dummy.
+   *
+   * We find the boundaries with the skip index, if there is one, and
+   * otherwise in one walk along the list.
+   */
+  @SuppressWarnings("unchecked")
+  Node2<T>[] segments(int count) {
+    Node2<T>[] bounds = (Node2<T>[]) new Node2<?>[count + 1];
+    Node2<T> node = this.dummy.next;
+    int pos = 0;
+    for (int i = 0; i < count; i++) {
+      int first = (int) ((long) this.size * i / count);
+      if (this.index != null) {
+        node = this.index.node(first);
+      } else {
+        for (; pos < first; pos++) {
+          node = node.next;
+        } // for
+      } // if/else
+      bounds[i] = node;
+    } // for
+    bounds[count] = this.dummy;
+    return bounds;
+  } // segments(int)
+
+  /**
+   * Sort a null-terminated chain of nodes, linked by their next fields,
+   * and return the front of the sorted chain.
+   *
+   * We merge bottom up, as a binary counter: runs[i] is empty or holds
+   * 2^i sorted nodes, all of which came before the nodes in runs[j] for
+   * j < i.  Each node is merged in at runs[0], carrying as needed.
+   */
+  static <T> Node2<T> mergeSort(Node2<T> chain, Comparator<? super T> c) {
+    @SuppressWarnings("unchecked")
+    Node2<T>[] runs = (Node2<T>[]) new Node2<?>[32];
+    int levels = 0;
+    while (chain != null) {
+      Node2<T> carry = chain;
+      chain = chain.next;
+      carry.next = null;
+      int i = 0;
+      for (; i < levels && runs[i] != null; i++) {
+        carry = merge(runs[i], carry, c);
+        runs[i] = null;
+      } // for
+      runs[i] = carry;
+      levels = Math.max(levels, i + 1);
+    } // while
+    Node2<T> result = null;
+    for (int i = 0; i < levels; i++) {
+      result = merge(runs[i], result, c);
+    } // for
+    return result;
+  } // mergeSort(Node2<T>, Comparator<? super T>)
+
+  /**
+   * Merge two sorted null-terminated chains, where the nodes of a came
+   * before those of b, and return the front of the merged chain.  Equal
+   * values keep their order.
+   */
+  static <T> Node2<T> merge(Node2<T> a, Node2<T> b, Comparator<? super T> c) {
+    if (a == null) {
+      return b;
+    } else if (b == null) {
+      return a;
+    } // if/else
+    Node2<T> head;
+    if (c.compare(b.value, a.value) < 0) {
+      head = b;
+      b = b.next;
+    } else {
+      head = a;
+      a = a.next;
+    } // if/else
+    Node2<T> tail = head;
+    while (a != null && b != null) {
+      if (c.compare(b.value, a.value) < 0) {
+        tail.next = b;
+        tail = b;
+        b = b.next;
+      } else {
+        tail.next = a;
+        tail = a;
+        a = a.next;
+      } // if/else
+    } // while
+    tail.next = (a != null) ? a : b;
+    return head;
+  } // merge(Node2<T>, Node2<T>, Comparator<? super T>)
+
   // +-----------+---------------------------------------------------------
   // | Iterators |
   // +-----------+
@@ -75,186 +1939,778 @@ public class SimpleCDLL<T> implements SimpleList<T> {
   } // iterator()
 
   public ListIterator<T> listIterator() {
-    return new ListIterator<T>() {
-      // +--------+--------------------------------------------------------
-      // | Fields |
-      // +--------+
-
-      /**
-       * The position in the list of the next value to be returned.
-       * Included because ListIterators must provide nextIndex and
-       * prevIndex.
-       */
-      int pos = 0;
-
-      /**
-       * The cursor is between neighboring values, so we start links
-       * to the previous and next value.
-       */
-      Node2<T> prev = SimpleCDLL.this.dummy;
-      Node2<T> next = SimpleCDLL.this.front();
-
-      /**
-       * The node to be updated by remove or set.  Has a value of
-       * null when there is no such value.
-       */
-      Node2<T> update = null;
-
-      /**
-       * The number of changes of the SimpleCDLL at the time of this iterator object's creation,
-       * or when this iterator last mutated the SimpleCDLL.
-       * 
-       * If this.numChanges != SimpleCDLL.this.numChanges, throw a ConcurrentModificationException
-       * when modifying the SimpleCDLL.
-       * 
-       * This field is necessary to support fail fast.
-       */
-      long numChanges = SimpleCDLL.this.numChanges;
-
-      // +---------+-------------------------------------------------------
-      // | Methods |
-      // +---------+
-
-      public void add(T val) throws UnsupportedOperationException {
-        checkConcurrentModification();
+    return listIterator(0);
+  } // listIterator()
 
-        // Add a node
-        this.prev = this.prev.insertAfter(val);
+  /**
+   * Get a spliterator over the values in the list.  It splits by walking
+   * to the middle of its range, or by using the skip index if there is
+   * one.  It fails fast if the list changes after it is created
+   * (including by a lazy removal).
+   */
+  public Spliterator<T> spliterator() {
+    compact();
+    return new CDLLSpliterator(this.dummy.next, 0, this.size);
+  } // spliterator()
 
-        // Note that we cannot update
-        this.update = null;
+  /**
+   * Get an iterator whose cursor starts just before the value at the
+   * given index.
+   *
+   * @throws IndexOutOfBoundsException if index is not in [0, size].
+   */
+  public ListIterator<T> listIterator(int index) {
+    checkIndex(index, this.size + 1);
+    final Node2<T> start = node(index);
+    if (CDLLMetrics.ENABLED && this.metrics != null) {
+      this.metrics.iterators.increment();
+    } // if
+    return new CDLLIterator(index, start);
+  } // listIterator(int)
+
+  /**
+   * Get an iterator whose cursor is just before an occurrence of val
+   * (see find), or null if val is not in the list.  With the value
+   * index on, this takes expected O(1) time; the iterator counts its
+   * position only if nextIndex or previousIndex asks for it (or the
+   * skip index needs it).
+   */
+  public ListIterator<T> listIteratorAt(Object val) {
+    Node2<T> node = find(val);
+    if (node == null) {
+      return null;
+    } // if
+    if (CDLLMetrics.ENABLED && this.metrics != null) {
+      this.metrics.iterators.increment();
+    } // if
+    return new CDLLIterator(-1, node);
+  } // listIteratorAt(Object)
+  // +---------------+-----------------------------------------------------
+  // | Inner Classes |
+  // +---------------+
+
+  /**
+   * Iterators over the list.
+   */
+  class CDLLIterator implements ListIterator<T> {
+    // +--------+--------------------------------------------------------
+    // | Fields |
+    // +--------+
+
+    /**
+     * The position in the list of the next value to be returned.
+     * Included because ListIterators must provide nextIndex and
+     * prevIndex.
+     */
+    int pos;
 
-        // Increase the size
+    /**
+     * The cursor is between neighboring values, so we start links
+     * to the previous and next value.
+     */
+    Node2<T> prev;
+    Node2<T> next;
+
+    /**
+     * The node to be updated by remove or set.  Has a value of
+     * null when there is no such value.
+     */
+    Node2<T> update = null;
+
+    /**
+     * The number of changes of the SimpleCDLL at the time of this iterator object's creation,
+     * or when this iterator last mutated the SimpleCDLL.
+     * 
+     * If this.numChanges != SimpleCDLL.this.numChanges, throw a ConcurrentModificationException
+     * when modifying the SimpleCDLL.
+     * 
+     * This field is necessary to support fail fast.
+     */
+    long numChanges = SimpleCDLL.this.numChanges;
+
+    /**
+     * The number of lazy removals from the list when pos was last known
+     * to be right.
+     */
+    long deaths = SimpleCDLL.this.numDeaths;
+
+    /**
+     * Whether we know pos at all.  An iterator placed at a node found by
+     * value (see listIteratorAt) counts its position only when it needs
+     * it.
+     */
+    boolean posKnown;
+
+    // +--------------+------------------------------------------------
+    // | Constructors |
+    // +--------------+
+
+    /**
+     * Create an iterator whose cursor is just before start, the node at
+     * the given index, or at an index we do not know yet if index is
+     * negative.
+     */
+    CDLLIterator(int index, Node2<T> start) {
+      this.pos = Math.max(index, 0);
+      this.posKnown = index >= 0;
+      this.prev = start.prev;
+      this.next = start;
+    } // CDLLIterator(int, Node2<T>)
+
+    // +---------+-------------------------------------------------------
+    // | Methods |
+    // +---------+
+
+    public void add(T val) throws UnsupportedOperationException {
+      checkConcurrentModification();
+
+      // Add after a live node, since prev may have been compacted away
+      if (SimpleCDLL.this.lazy) {
+        this.prev = SimpleCDLL.this.skipBackward(this.prev);
+      } // if
+
+      // The skip index needs to know where we are
+      if (SimpleCDLL.this.index != null) {
+        index();
+      } // if
+
+      // Add a node
+      SimpleCDLL.this.beginWrite();
+      try {
+        this.prev = SimpleCDLL.this.link(this.prev, val, this.pos);
         ++SimpleCDLL.this.size;
+      } finally {
+        SimpleCDLL.this.endWrite();
+      } // try/finally
 
-        // Update the position.  (See SimpleArrayList.java for more of
-        // an explanation.)
-        ++this.pos;
+      // Note that we cannot update
+      this.update = null;
 
-        // Update numChanges.
-        incrementNumChanges();
-      } // add(T)
+      // Update the position.  (See SimpleArrayList.java for more of
+      // an explanation.)
+      ++this.pos;
 
-      public boolean hasNext() {
-        checkConcurrentModification();
-        return (this.pos < SimpleCDLL.this.size);
-      } // hasNext()
+      // Update numChanges.
+      incrementNumChanges();
+    } // add(T)
 
-      public boolean hasPrevious() {
-        checkConcurrentModification();
-        return (this.pos > 0);
-      } // hasPrevious()
+    /**
+     * Add the values at the cursor, in order, as if by calling add on
+     * each.  (See addAll(Iterator).)
+     */
+    public void addAll(Collection<? extends T> values) {
+      addAll(values.iterator());
+    } // addAll(Collection<? extends T>)
 
-      public T next() {
-        checkConcurrentModification();
-        if (!this.hasNext()) {
-         throw new NoSuchElementException();
+    /**
+     * Add the remaining values of values at the cursor, in order, as if
+     * by calling add on each.  Afterwards the cursor is after the last
+     * value added.
+     *
+     * Rather than linking each value into the list, we build a chain of
+     * nodes (pooled ones first) off the list and link the whole chain in
+     * with one update at each end.  The size, position and number of
+     * changes are updated once.  The skip index, if any, gets the new
+     * nodes in expected O(log n) time each (see indexChain).
+     * If values fails partway through, the list is unchanged (though
+     * the pool may lose the nodes we took from it).  Since the
+     * list does not change until the end, values may be an iterator over
+     * this very list.
+     */
+    public void addAll(Iterator<? extends T> values) {
+      checkConcurrentModification();
+      SimpleCDLL<T> list = SimpleCDLL.this;
+
+      // Build the chain
+      Node2<T> first = null;
+      Node2<T> last = null;
+      int added = 0;
+      while (values.hasNext()) {
+        T val = values.next();
+        Node2<T> node;
+        if (list.pool != null) {
+          node = list.pool;
+          list.pool = node.next;
+          --list.poolSize;
+          node.prev = last;
+          node.value = val;
+          node.next = null;
+        } else {
+          node = new Node2<T>(last, val);
+        } // if/else
+        node.owner = list.owner;
+        if (last == null) {
+          first = node;
+        } else {
+          last.next = node;
+        } // if/else
+        last = node;
+        ++added;
+      } // while
+      if (added == 0) {
+        return;
+      } // if
+      checkConcurrentModification();
+
+      // Link it in after a live node, as add does
+      if (list.lazy) {
+        this.prev = list.skipBackward(this.prev);
+      } // if
+      int at = (list.index != null) ? index() : this.pos;
+      Node2<T> after = this.prev.next;
+      list.beginWrite();
+      try {
+        first.prev = this.prev;
+        last.next = after;
+        this.prev.next = first;
+        after.prev = last;
+        list.size += added;
+        if (list.valueIndex != null) {
+          for (Node2<T> node = first; node != after; node = node.next) {
+            list.valueIndex.add(node);
+          } // for
         } // if
-        // Identify the node to update
-        this.update = this.next;
-        // Advance the cursor
-        this.prev = this.next;
-        this.next = this.next.next;
-        // Note the movement
-        ++this.pos;
-        // And return the value
-        return this.update.value;
-      } // next()
-
-      public int nextIndex() {
-        checkConcurrentModification();
-        return this.pos;
-      } // nextIndex()
+      } finally {
+        list.endWrite();
+      } // try/finally
 
-      public int previousIndex() {
-        checkConcurrentModification();
-        return this.pos - 1;
-      } // prevIndex
+      this.prev = last;
+      this.update = null;
+      this.pos += added;
+      list.indexChain(first, at, added);
+      if (CDLLMetrics.ENABLED && list.metrics != null) {
+        list.metrics.adds.add(added);
+      } // if
+      incrementNumChanges();
+    } // addAll(Iterator<? extends T>)
 
-      public T previous() throws NoSuchElementException {
-        checkConcurrentModification();
-        if (!this.hasPrevious()) {
-          throw new NoSuchElementException();
-        }
+    public boolean hasNext() {
+      checkConcurrentModification();
+      return !atEnd();
+    } // hasNext()
 
-        // Identify the node to update
-        this.update = this.prev;
-        // Advance the cursor
-        this.next = this.prev;
-        this.prev = this.prev.prev;
+    public boolean hasPrevious() {
+      checkConcurrentModification();
+      return !atStart();
+    } // hasPrevious()
 
-        // Note the movement
-        --this.pos;
-        // And return the value
-        return this.update.value;
-      } // previous()
+    public T next() {
+      // One check covers the list; hasNext would check again
+      checkConcurrentModification();
+      if (atEnd()) {
+        throw new NoSuchElementException();
+      } // if
+      // Identify the node to update
+      this.update = this.next;
+      // Advance the cursor
+      this.prev = this.next;
+      this.next = this.next.next;
+      // Note the movement
+      ++this.pos;
+      if (CDLLMetrics.ENABLED && SimpleCDLL.this.metrics != null) {
+        SimpleCDLL.this.metrics.iteratorSteps.increment();
+      } // if
+      // And return the value
+      return this.update.value;
+    } // next()
 
-      public void remove() {
-        // Sanity check
-        checkConcurrentModification();
-        if (this.update == null) {
-          throw new IllegalStateException();
+    /**
+     * Pass each remaining value to action.  We follow the links
+     * directly rather than calling next, comparing numChanges once per
+     * value, as next would, and checking once more at the end in case the
+     * last action changed the list.  Dead nodes are skipped.  Afterwards
+     * the cursor is at the end and the last value visited may be removed
+     * or set.
+     */
+    public void forEachRemaining(Consumer<? super T> action) {
+      Objects.requireNonNull(action);
+      checkConcurrentModification();
+      long expected = this.numChanges;
+      Node2<T> dummy = SimpleCDLL.this.dummy;
+      Node2<T> node = this.next;
+      Node2<T> last = null;
+      int visited = 0;
+      while (node != dummy && SimpleCDLL.this.numChanges == expected) {
+        Node2<T> current = node;
+        node = node.next;
+        T val = current.value;
+        if (val != DEAD) {
+          last = current;
+          ++visited;
+          action.accept(val);
         } // if
+      } // while
+      checkConcurrentModification();
 
-        // Update the cursor
-        if (this.next == this.update) {
-          this.next = this.update.next;
-        } // if
+      if (CDLLMetrics.ENABLED && SimpleCDLL.this.metrics != null) {
+        SimpleCDLL.this.metrics.iteratorSteps.add(visited);
+      } // if
+
+      // Leave the cursor after the last value visited
+      if (last != null) {
+        this.prev = this.update = last;
+        this.next = node;
+        this.pos += visited;
+      } // if
+    } // forEachRemaining(Consumer<? super T>)
+
+    public int nextIndex() {
+      checkConcurrentModification();
+      return index();
+    } // nextIndex()
+
+    public int previousIndex() {
+      checkConcurrentModification();
+      return index() - 1;
+    } // prevIndex
+
+    public T previous() throws NoSuchElementException {
+      checkConcurrentModification();
+      if (atStart()) {
+        throw new NoSuchElementException();
+      } // if
+
+      // Identify the node to update
+      this.update = this.prev;
+      // Advance the cursor
+      this.next = this.prev;
+      this.prev = this.prev.prev;
+
+      // Note the movement
+      --this.pos;
+      if (CDLLMetrics.ENABLED && SimpleCDLL.this.metrics != null) {
+        SimpleCDLL.this.metrics.iteratorSteps.increment();
+      } // if
+      // And return the value
+      return this.update.value;
+    } // previous()
+
+    public void remove() {
+      // Sanity check
+      checkConcurrentModification();
+      if (this.update == null) {
+        throw new IllegalStateException();
+      } // if
+      if (this.update.value == DEAD) {
+        // Another iterator removed it lazily
+        throw failFast();
+      } // if
+
+      // In lazy mode, mark the node dead and leave the cursor in place
+      if (SimpleCDLL.this.lazy) {
         if (this.prev == this.update) {
-          this.prev = this.update.prev;
           --this.pos;
         } // if
+        if (this.deaths == SimpleCDLL.this.numDeaths) {
+          ++this.deaths;
+        } // if
+        SimpleCDLL.this.beginWrite();
+        try {
+          SimpleCDLL.this.kill(this.update);
+        } finally {
+          SimpleCDLL.this.endWrite();
+        } // try/finally
+        this.update = null;
+        return;
+      } // if
 
-        // Do the real work
-        this.update.remove();
+      // The skip index needs to know where we are
+      if (SimpleCDLL.this.index != null) {
+        index();
+      } // if
 
-        // Reduce the size of list
+      // Update the cursor
+      if (this.next == this.update) {
+        this.next = this.update.next;
+      } // if
+      if (this.prev == this.update) {
+        this.prev = this.update.prev;
+        --this.pos;
+      } // if
+
+      // Do the real work.  (Either way, the removed value was at the
+      // position the cursor is now at.)
+      SimpleCDLL.this.beginWrite();
+      try {
+        SimpleCDLL.this.unlink(this.update, this.pos);
         --SimpleCDLL.this.size;
+      } finally {
+        SimpleCDLL.this.endWrite();
+      } // try/finally
 
-        // Note that no more updates are possible
-        this.update = null;
+      // Note that no more updates are possible
+      this.update = null;
+
+      // Update numChanges
+      incrementNumChanges();
+    } // remove()
+
+    public void set(T val) {
+      checkConcurrentModification();
+      // Sanity check
+      if (this.update == null) {
+        throw new IllegalStateException();
+      } // if
+      if (this.update.value == DEAD) {
+        // Another iterator removed it lazily
+        throw failFast();
+      } // if
+      // Do the real work
+      SimpleCDLL.this.beginWrite();
+      try {
+        SimpleCDLL.this.setValue(this.update, val);
+      } finally {
+        SimpleCDLL.this.endWrite();
+      } // try/finally
+      SimpleCDLL.this.noteSet();
+      // Note that no more updates are possible
+      this.update = null;
+    } // set(T)
+
+    /**
+     * Get the list this iterator is over.
+     */
+    SimpleCDLL<T> list() {
+      return SimpleCDLL.this;
+    } // list()
+
+    // +----------------+------------------------------------------------------------------------
+    // | Helper Methods |
+    // +----------------+
+
+    /**
+     * Check if list has not been changed by other iterators. This implements the "fail fast"
+     * strategy.
+     * 
+     * @throws ConcurrentModificationException if other iterators have modified list.
+     */
+    void checkConcurrentModification() {
+      // Check list has not been changed by other iterators
+      if (this.numChanges != SimpleCDLL.this.numChanges) {
+        throw failFast();
+      } // if
+    } // checkConcurrentModification()
+
+    /**
+     * Whether the cursor is at the end of the list.  In lazy mode, we
+     * first step next over any dead nodes (see skipForward), and check the
+     * links rather than pos, which may be stale.  We also check the links
+     * while we do not know pos.
+     */
+    boolean atEnd() {
+      if (!SimpleCDLL.this.lazy && this.posKnown) {
+        return this.pos >= SimpleCDLL.this.size;
+      } // if
+      this.next = SimpleCDLL.this.skipForward(this.next);
+      return this.next == SimpleCDLL.this.dummy;
+    } // atEnd()
+
+    /**
+     * Whether the cursor is at the start of the list.  (See atEnd.)
+     */
+    boolean atStart() {
+      if (!SimpleCDLL.this.lazy && this.posKnown) {
+        return this.pos <= 0;
+      } // if
+      this.prev = SimpleCDLL.this.skipBackward(this.prev);
+      return this.prev == SimpleCDLL.this.dummy;
+    } // atStart()
 
-        // Update numChanges
-        incrementNumChanges();
-      } // remove()
+    /**
+     * The index of the value after the cursor.  If we have never known
+     * it, or another iterator has removed values lazily since we last
+     * knew it, we count the live values before the cursor again.
+     */
+    int index() {
+      if (!this.posKnown || this.deaths != SimpleCDLL.this.numDeaths) {
+        int pos = 0;
+        for (Node2<T> node = this.prev; node != SimpleCDLL.this.dummy;
+            node = node.prev) {
+          if (node.value != DEAD) {
+            ++pos;
+          } // if
+        } // for
+        this.pos = pos;
+        this.posKnown = true;
+        this.deaths = SimpleCDLL.this.numDeaths;
+      } // if
+      return this.pos;
+    } // index()
 
-      public void set(T val) {
+    /**
+     * Step prev and next over dead nodes and bring pos up to date, so
+     * that, once the list is compacted, they are neighbors again.
+     */
+    void settle() {
+      atStart();
+      atEnd();
+      index();
+    } // settle()
+
+    /**
+     * Increment `this.numChanges` and `SimpleCDLL.this.numChanges` by 1.
+     */
+    void incrementNumChanges() {
+      this.numChanges++;
+      SimpleCDLL.this.noteChange();
+    }
+  } // class CDLLIterator
+
+  /**
+   * Spliterators over a range of the list.
+   */
+  class CDLLSpliterator implements Spliterator<T> {
+    // +--------+--------------------------------------------------------
+    // | Fields |
+    // +--------+
+
+    /**
+     * The node holding the next value, and its index.
+     */
+    Node2<T> node;
+    int pos;
+
+    /**
+     * The number of values left in the range.
+     */
+    int remaining;
+
+    /**
+     * The number of changes of the SimpleCDLL when this spliterator (or
+     * the one it was split from) was created.
+     */
+    long numChanges = SimpleCDLL.this.numChanges;
+
+    /**
+     * The number of lazy removals from the list at the same time.  A
+     * lazy removal also changes the values we would visit.
+     */
+    long deaths = SimpleCDLL.this.numDeaths;
+
+    // +--------------+------------------------------------------------
+    // | Constructors |
+    // +--------------+
+
+    /**
+     * Create a spliterator over the remaining values starting with the
+     * one in node, which is at index pos.
+     */
+    CDLLSpliterator(Node2<T> node, int pos, int remaining) {
+      this.node = node;
+      this.pos = pos;
+      this.remaining = remaining;
+    } // CDLLSpliterator(Node2<T>, int, int)
+
+    // +---------+-------------------------------------------------------
+    // | Methods |
+    // +---------+
+
+    public boolean tryAdvance(Consumer<? super T> action) {
+      Objects.requireNonNull(action);
+      checkConcurrentModification();
+      if (this.remaining == 0) {
+        return false;
+      } // if
+      T val = this.node.value;
+      this.node = this.node.next;
+      ++this.pos;
+      --this.remaining;
+      action.accept(val);
+      return true;
+    } // tryAdvance(Consumer<? super T>)
+
+    public void forEachRemaining(Consumer<? super T> action) {
+      Objects.requireNonNull(action);
+      Node2<T> node = this.node;
+      int remaining = this.remaining;
+      this.pos += remaining;
+      this.remaining = 0;
+      for (; remaining > 0; remaining--) {
         checkConcurrentModification();
-        // Sanity check
-        if (this.update == null) {
-          throw new IllegalStateException();
-        } // if
-        // Do the real work
-        this.update.value = val;
-        // Note that no more updates are possible
-        this.update = null;
-      } // set(T)
-
-      // +----------------+------------------------------------------------------------------------
-      // | Helper Methods |
-      // +----------------+
-
-      /**
-       * Check if list has not been changed by other iterators. This implements the "fail fast"
-       * strategy.
-       * 
-       * @throws ConcurrentModificationException if other iterators have modified list.
-       */
-      void checkConcurrentModification() {
-        // Check list has not been changed by other iterators
-        if (this.numChanges != SimpleCDLL.this.numChanges) {
-          throw new ConcurrentModificationException();
-        }
-      }
-
-      /**
-       * Increment `this.numChanges` and `SimpleCDLL.this.numChanges` by 1.
-       */
-      void incrementNumChanges() {
-        this.numChanges++;
-        SimpleCDLL.this.numChanges++;
-      }
-    };
-  } // listIterator()
+        T val = node.value;
+        node = node.next;
+        action.accept(val);
+      } // for
+      this.node = node;
+      checkConcurrentModification();
+    } // forEachRemaining(Consumer<? super T>)
+
+    public Spliterator<T> trySplit() {
+      checkConcurrentModification();
+      if (this.remaining < 2) {
+        return null;
+      } // if
+      int half = this.remaining / 2;
+      Node2<T> mid = this.node;
+      if (SimpleCDLL.this.index != null && half > INDEX_THRESHOLD) {
+        mid = SimpleCDLL.this.index.node(this.pos + half);
+      } else {
+        for (int i = 0; i < half; i++) {
+          mid = mid.next;
+        } // for
+      } // if/else
+      CDLLSpliterator prefix = new CDLLSpliterator(this.node, this.pos, half);
+      prefix.numChanges = this.numChanges;
+      prefix.deaths = this.deaths;
+      this.node = mid;
+      this.pos += half;
+      this.remaining -= half;
+      return prefix;
+    } // trySplit()
+
+    public long estimateSize() {
+      return this.remaining;
+    } // estimateSize()
+
+    public int characteristics() {
+      return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+    } // characteristics()
+
+    // +----------------+------------------------------------------------
+    // | Helper Methods |
+    // +----------------+
+
+    /**
+     * Make sure that the list has not changed since we were created.
+     *
+     * @throws ConcurrentModificationException if it has.
+     */
+    void checkConcurrentModification() {
+      if (this.numChanges != SimpleCDLL.this.numChanges
+          || this.deaths != SimpleCDLL.this.numDeaths) {
+        throw failFast();
+      } // if
+    } // checkConcurrentModification()
+  } // class CDLLSpliterator
 
+  /**
+   * Sorts the null-terminated chains in chains[lo] through chains[hi - 1]
+   * and merges them, splitting the range in half until each task has one
+   * chain.  If c throws, no subtask is still running when the exception
+   * leaves compute.
+   */
+  class SortTask extends RecursiveTask<Node2<T>> {
+    private static final long serialVersionUID = 1L;
+
+    Node2<T>[] chains;
+    int lo;
+    int hi;
+    Comparator<? super T> c;
+
+    SortTask(Node2<T>[] chains, int lo, int hi, Comparator<? super T> c) {
+      this.chains = chains;
+      this.lo = lo;
+      this.hi = hi;
+      this.c = c;
+    } // SortTask(Node2<T>[], int, int, Comparator<? super T>)
+
+    protected Node2<T> compute() {
+      if (this.hi - this.lo == 1) {
+        return mergeSort(this.chains[this.lo], this.c);
+      } // if
+      int mid = (this.lo + this.hi) >>> 1;
+      SortTask left = new SortTask(this.chains, this.lo, mid, this.c);
+      left.fork();
+      Node2<T> right;
+      try {
+        right = new SortTask(this.chains, mid, this.hi, this.c).compute();
+      } catch (RuntimeException | Error e) {
+        // Let the other half finish relinking before sort puts the list
+        // back, or it would relink nodes under us
+        left.quietlyJoin();
+        throw e;
+      } // try/catch
+      return merge(left.join(), right, this.c);
+    } // compute()
+  } // class SortTask
+
+  /**
+   * Runs work on segments lo through hi - 1 of a list, given by their
+   * bounds (see segments), and combines the results in order, splitting
+   * the range in half until each task has one segment.  If work throws,
+   * no subtask is still running when the exception leaves compute.
+   */
+  class SegmentTask<R> extends RecursiveTask<R> {
+    private static final long serialVersionUID = 1L;
+
+    Node2<T>[] bounds;
+    int lo;
+    int hi;
+    BiFunction<Node2<T>, Node2<T>, R> work;
+    BinaryOperator<R> combine;
+
+    SegmentTask(Node2<T>[] bounds, int lo, int hi,
+        BiFunction<Node2<T>, Node2<T>, R> work, BinaryOperator<R> combine) {
+      this.bounds = bounds;
+      this.lo = lo;
+      this.hi = hi;
+      this.work = work;
+      this.combine = combine;
+    } // SegmentTask(Node2<T>[], int, int, BiFunction, BinaryOperator)
+
+    protected R compute() {
+      if (this.hi - this.lo == 1) {
+        return this.work.apply(this.bounds[this.lo], this.bounds[this.hi]);
+      } // if
+      int mid = (this.lo + this.hi) >>> 1;
+      SegmentTask<R> left = new SegmentTask<R>(this.bounds, this.lo, mid,
+          this.work, this.combine);
+      left.fork();
+      R right;
+      try {
+        right = new SegmentTask<R>(this.bounds, mid, this.hi, this.work,
+            this.combine).compute();
+      } catch (RuntimeException | Error e) {
+        // Let the other segments finish, so that none is still working
+        // on the list when the caller gets the exception
+        left.quietlyJoin();
+        throw e;
+      } // try/catch
+      return this.combine.apply(left.join(), right);
+    } // compute()
+  } // class SegmentTask<R>
+
+  /**
+   * A snapshot shared with readers, and the version of the list it
+   * shows.
+   */
+  static class Published<T> {
+    final long version;
+    final List<T> values;
+
+    Published(long version, List<T> values) {
+      this.version = version;
+      this.values = values;
+    } // Published(long, List<T>)
+  } // class Published<T>
+
+  /**
+   * Tokens that tell which list holds a node, so that handle operations
+   * can reject nodes from other lists.  Rather than mark every node it
+   * moves, a splice merges the other list's token into ours, by making
+   * ours its parent, and gives the other list a new token; a node belongs
+   * to the list whose token is the root above the node's.  A list's own
+   * token is always a root.
+   */
+  static class Owner {
+    /**
+     * The token this one was merged into, or null if it is a root.
+     */
+    Owner parent;
+
+    /**
+     * Find the root above this token, pointing each token we pass at its
+     * grandparent so that later searches are shorter.
+     */
+    Owner root() {
+      Owner token = this;
+      while (token.parent != null) {
+        if (token.parent.parent != null) {
+          token.parent = token.parent.parent;
+        } // if
+        token = token.parent;
+      } // while
+      return token;
+    } // root()
+  } // class Owner
 } // class SimpleDLL<T>
@@ -2,6 +2,9 @@ import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 /**
  * Simple doubly-linked lists.
@@ -43,6 +46,15 @@ public class SimpleDLL<T> implements SimpleList<T> {
     return listIterator();
   } // iterator()
 
+  /**
+   * Get a spliterator over the values in the list.  It splits by walking
+   * to the middle of its range.  Like our iterators, it does not fail
+   * fast, so do not change the list while using it.
+   */
+  public Spliterator<T> spliterator() {
+    return new DLLSpliterator(this.front, this.size);
+  } // spliterator()
+
   public ListIterator<T> listIterator() {
     return new ListIterator<T>() {
       // +--------+--------------------------------------------------------
@@ -189,4 +201,75 @@ public class SimpleDLL<T> implements SimpleList<T> {
     };
   } // listIterator()
 
+  // +---------------+-----------------------------------------------------
+  // | Inner Classes |
+  // +---------------+
+
+  /**
+   * Spliterators over a range of the list.
+   */
+  class DLLSpliterator implements Spliterator<T> {
+    /**
+     * The node holding the next value.
+     */
+    Node2<T> node;
+
+    /**
+     * The number of values left in the range.
+     */
+    int remaining;
+
+    DLLSpliterator(Node2<T> node, int remaining) {
+      this.node = node;
+      this.remaining = remaining;
+    } // DLLSpliterator(Node2<T>, int)
+
+    public boolean tryAdvance(Consumer<? super T> action) {
+      Objects.requireNonNull(action);
+      if (this.remaining == 0) {
+        return false;
+      } // if
+      T val = this.node.value;
+      this.node = this.node.next;
+      --this.remaining;
+      action.accept(val);
+      return true;
+    } // tryAdvance(Consumer<? super T>)
+
+    public void forEachRemaining(Consumer<? super T> action) {
+      Objects.requireNonNull(action);
+      Node2<T> node = this.node;
+      int remaining = this.remaining;
+      this.node = null;
+      this.remaining = 0;
+      for (; remaining > 0; remaining--) {
+        T val = node.value;
+        node = node.next;
+        action.accept(val);
+      } // for
+    } // forEachRemaining(Consumer<? super T>)
+
+    public Spliterator<T> trySplit() {
+      if (this.remaining < 2) {
+        return null;
+      } // if
+      int half = this.remaining / 2;
+      Node2<T> mid = this.node;
+      for (int i = 0; i < half; i++) {
+        mid = mid.next;
+      } // for
+      DLLSpliterator prefix = new DLLSpliterator(this.node, half);
+      this.node = mid;
+      this.remaining -= half;
+      return prefix;
+    } // trySplit()
+
+    public long estimateSize() {
+      return this.remaining;
+    } // estimateSize()
+
+    public int characteristics() {
+      return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+    } // characteristics()
+  } // class DLLSpliterator
 } // class SimpleDLL<T>
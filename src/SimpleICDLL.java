@@ -0,0 +1,344 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Simple index-linked, circularly-linked, doubly-linked lists with a
+ * dummy node.
+ *
+ * Rather than keeping a Node2 object per value, we keep the links and
+ * values in parallel arrays and refer to a "node" by its slot in those
+ * arrays.  Slot 0 is the dummy node.  Slots freed by removal are chained
+ * together (through the next array) and reused before the arrays grow.
+ *
+ * This list supports the Fail Fast policy.
+ */
+public class SimpleICDLL<T> implements SimpleList<T> {
+  // +-----------+---------------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The slot of the dummy node.
+   */
+  static final int DUMMY = 0;
+
+  /**
+   * The end of the chain of free slots.
+   */
+  static final int NONE = -1;
+
+  /**
+   * The number of slots (including the dummy) when none is given.
+   */
+  static final int DEFAULT_CAPACITY = 16;
+
+  // +--------+------------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The number of values in the list.
+   */
+  int size;
+
+  /**
+   * prev[i] is the slot of the node before the node in slot i.
+   */
+  int[] prev;
+
+  /**
+   * next[i] is the slot of the node after the node in slot i.  For a free
+   * slot, next[i] is the following free slot.
+   */
+  int[] next;
+
+  /**
+   * values[i] is the value stored in slot i.
+   */
+  Object[] values;
+
+  /**
+   * The first free slot, or NONE.
+   */
+  int free;
+
+  /**
+   * The number of slots that have ever been used.  Slots at or above this
+   * index have never held a node.
+   */
+  int used;
+
+  /**
+   * To support fail fast, we keep track of the number of changes that have
+   * been made to this list.
+   */
+  long numChanges;
+
+  // +--------------+------------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create an empty list.
+   */
+  public SimpleICDLL() {
+    this(DEFAULT_CAPACITY);
+  } // SimpleICDLL()
+
+  /**
+   * Create an empty list with room for capacity - 1 values before the
+   * arrays need to grow.
+   */
+  public SimpleICDLL(int capacity) {
+    if (capacity < 1) {
+      capacity = 1;
+    } // if
+    this.size = 0;
+    this.prev = new int[capacity];
+    this.next = new int[capacity];
+    this.values = new Object[capacity];
+    this.free = NONE;
+    this.used = 1;
+    this.numChanges = 0;
+
+    this.prev[DUMMY] = DUMMY;
+    this.next[DUMMY] = DUMMY;
+  } // SimpleICDLL(int)
+
+  // +----------------+----------------------------------------------------
+  // | Helper Methods |
+  // +----------------+
+
+  /**
+   * Get the value in a slot.
+   */
+  @SuppressWarnings("unchecked")
+  T value(int slot) {
+    return (T) this.values[slot];
+  } // value(int)
+
+  /**
+   * Insert a new value after the node in the given slot.  Returns the
+   * slot of the new node.
+   */
+  int insertAfter(int node, T val) {
+    int slot = this.free;
+    if (slot != NONE) {
+      this.free = this.next[slot];
+    } else {
+      if (this.used == this.values.length) {
+        grow();
+      } // if
+      slot = this.used++;
+    } // if/else
+    int after = this.next[node];
+    this.values[slot] = val;
+    this.prev[slot] = node;
+    this.next[slot] = after;
+    this.prev[after] = slot;
+    this.next[node] = slot;
+    return slot;
+  } // insertAfter(int, T)
+
+  /**
+   * Remove the node in the given slot and put the slot on the free chain.
+   */
+  void remove(int node) {
+    this.next[this.prev[node]] = this.next[node];
+    this.prev[this.next[node]] = this.prev[node];
+    this.values[node] = null;
+    this.prev[node] = NONE;
+    this.next[node] = this.free;
+    this.free = node;
+  } // remove(int)
+
+  /**
+   * Double the number of slots.
+   */
+  void grow() {
+    int capacity = this.values.length * 2;
+    this.prev = Arrays.copyOf(this.prev, capacity);
+    this.next = Arrays.copyOf(this.next, capacity);
+    this.values = Arrays.copyOf(this.values, capacity);
+  } // grow()
+
+  // +-----------+---------------------------------------------------------
+  // | Iterators |
+  // +-----------+
+
+  public Iterator<T> iterator() {
+    return listIterator();
+  } // iterator()
+
+  public ListIterator<T> listIterator() {
+    return new ListIterator<T>() {
+      // +--------+--------------------------------------------------------
+      // | Fields |
+      // +--------+
+
+      /**
+       * The position in the list of the next value to be returned.
+       * Included because ListIterators must provide nextIndex and
+       * prevIndex.
+       */
+      int pos = 0;
+
+      /**
+       * The cursor is between neighboring values, so we keep the slots
+       * of the previous and next value.  (We look the links up in the
+       * list's arrays each time, since the arrays are replaced when they
+       * grow.)
+       */
+      int prev = DUMMY;
+      int next = SimpleICDLL.this.next[DUMMY];
+
+      /**
+       * The slot to be updated by remove or set.  Has a value of NONE
+       * when there is no such value.
+       */
+      int update = NONE;
+
+      /**
+       * The number of changes of the SimpleICDLL at the time of this
+       * iterator object's creation, or when this iterator last mutated
+       * the SimpleICDLL.
+       */
+      long numChanges = SimpleICDLL.this.numChanges;
+
+      // +---------+-------------------------------------------------------
+      // | Methods |
+      // +---------+
+
+      public void add(T val) {
+        checkConcurrentModification();
+
+        // Add a node
+        this.prev = SimpleICDLL.this.insertAfter(this.prev, val);
+
+        // Note that we cannot update
+        this.update = NONE;
+
+        ++SimpleICDLL.this.size;
+        ++this.pos;
+        incrementNumChanges();
+      } // add(T)
+
+      public boolean hasNext() {
+        checkConcurrentModification();
+        return (this.pos < SimpleICDLL.this.size);
+      } // hasNext()
+
+      public boolean hasPrevious() {
+        checkConcurrentModification();
+        return (this.pos > 0);
+      } // hasPrevious()
+
+      public T next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        } // if
+        // Identify the node to update
+        this.update = this.next;
+        // Advance the cursor
+        this.prev = this.next;
+        this.next = SimpleICDLL.this.next[this.next];
+        // Note the movement
+        ++this.pos;
+        // And return the value
+        return SimpleICDLL.this.value(this.update);
+      } // next()
+
+      public int nextIndex() {
+        checkConcurrentModification();
+        return this.pos;
+      } // nextIndex()
+
+      public int previousIndex() {
+        checkConcurrentModification();
+        return this.pos - 1;
+      } // prevIndex
+
+      public T previous() {
+        if (!this.hasPrevious()) {
+          throw new NoSuchElementException();
+        } // if
+        // Identify the node to update
+        this.update = this.prev;
+        // Advance the cursor
+        this.next = this.prev;
+        this.prev = SimpleICDLL.this.prev[this.prev];
+        // Note the movement
+        --this.pos;
+        // And return the value
+        return SimpleICDLL.this.value(this.update);
+      } // previous()
+
+      public void remove() {
+        // Sanity check
+        checkConcurrentModification();
+        if (this.update == NONE) {
+          throw new IllegalStateException();
+        } // if
+
+        // Update the cursor
+        if (this.next == this.update) {
+          this.next = SimpleICDLL.this.next[this.update];
+        } // if
+        if (this.prev == this.update) {
+          this.prev = SimpleICDLL.this.prev[this.update];
+          --this.pos;
+        } // if
+
+        // Do the real work
+        SimpleICDLL.this.remove(this.update);
+        --SimpleICDLL.this.size;
+
+        // Note that no more updates are possible
+        this.update = NONE;
+
+        incrementNumChanges();
+      } // remove()
+
+      public void set(T val) {
+        checkConcurrentModification();
+        // Sanity check
+        if (this.update == NONE) {
+          throw new IllegalStateException();
+        } // if
+        // Do the real work
+        SimpleICDLL.this.values[this.update] = val;
+        // Note that no more updates are possible
+        this.update = NONE;
+      } // set(T)
+
+      // +----------------+------------------------------------------------
+      // | Helper Methods |
+      // +----------------+
+
+      /**
+       * Check if list has not been changed by other iterators. This
+       * implements the "fail fast" strategy.
+       *
+       * @throws ConcurrentModificationException if other iterators have
+       *   modified list.
+       */
+      void checkConcurrentModification() {
+        if (this.numChanges != SimpleICDLL.this.numChanges) {
+          throw new ConcurrentModificationException();
+        } // if
+      } // checkConcurrentModification()
+
+      /**
+       * Increment `this.numChanges` and `SimpleICDLL.this.numChanges` by 1.
+       */
+      void incrementNumChanges() {
+        this.numChanges++;
+        SimpleICDLL.this.numChanges++;
+      } // incrementNumChanges()
+    };
+  } // listIterator()
+
+} // class SimpleICDLL<T>
@@ -1,5 +1,7 @@
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Very simple lists.
@@ -8,4 +10,19 @@ public interface SimpleList<T> extends Iterable<T> {
   public Iterator<T> iterator();
 
   public ListIterator<T> listIterator();
+
+  /**
+   * Get a sequential stream of the values in the list.
+   */
+  public default Stream<T> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  } // stream()
+
+  /**
+   * Get a possibly parallel stream of the values in the list.  It splits
+   * well only if the list provides its own spliterator.
+   */
+  public default Stream<T> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  } // parallelStream()
 } // interface SimpleList<T>
@@ -0,0 +1,222 @@
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Supplier;
+
+/**
+ * A quick, dependency-free harness for throughput and allocation
+ * benchmarks of SimpleLists, and the implementations they compare.
+ *
+ * The benchmarks of the lists' basic operations are JMH benchmarks, in
+ * jmh/ (see bench.SimpleListBenchmark), which use the implementations in
+ * IMPLS.  The smaller benchmarks of single features (BulkOpsBench,
+ * SortBench and the like) use this harness: for each combination we
+ * report the mean number of operations per second over the measured
+ * rounds and the number of bytes allocated per operation (read from the
+ * per-thread allocation counter, as the JMH GC profiler does).
+ */
+public class SimpleListBench {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The number of unmeasured rounds run before we start measuring.
+   */
+  static final int WARMUP_ROUNDS = 5;
+
+  /**
+   * The number of measured rounds.
+   */
+  static final int MEASURED_ROUNDS = 10;
+
+  /**
+   * Roughly how many elements each round processes.  Small lists are
+   * run several times per round so that the timer resolution does not
+   * dominate.
+   */
+  static final int ELEMENTS_PER_ROUND = 200_000;
+
+  /**
+   * The seed for all the random walks, so that runs are reproducible.
+   */
+  static final long SEED = 207;
+
+  /**
+   * The list sizes used when none are given on the command line.
+   */
+  static final int[] DEFAULT_SIZES = {1_000, 10_000};
+
+  /**
+   * The pool capacity used for the pooled SimpleCDLL.
+   */
+  static final int POOL_CAPACITY = 1024;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The implementations we compare.
+   */
+  static final List<Impl> IMPLS = new ArrayList<Impl>();
+
+  static {
+    IMPLS.add(new Impl("SimpleDLL", () -> new SimpleDLL<Object>()));
+    IMPLS.add(new Impl("SimpleCDLL", () -> new SimpleCDLL<Object>()));
+    IMPLS.add(new Impl("SimpleCDLL+pool",
+        () -> new SimpleCDLL<Object>(POOL_CAPACITY)));
+    IMPLS.add(new Impl("SimpleCDLL+lazy", () -> {
+      SimpleCDLL<Object> lst = new SimpleCDLL<Object>();
+      lst.enableLazyRemoval();
+      return lst;
+    }));
+    IMPLS.add(new Impl("SimpleUCDLL", () -> new SimpleUCDLL<Object>()));
+    IMPLS.add(new Impl("SimpleICDLL", () -> new SimpleICDLL<Object>()));
+    IMPLS.add(new Impl("LinkedList",
+        () -> new JavaList<Object>(new LinkedList<Object>())));
+    IMPLS.add(new Impl("ArrayList",
+        () -> new JavaList<Object>(new ArrayList<Object>())));
+  } // static
+
+  // +---------+-----------------------------------------------------
+  // | Harness |
+  // +---------+
+
+  /**
+   * Add every value to an empty list using one iterator.
+   */
+  static long add(SimpleList<Object> lst, Object[] values) {
+    ListIterator<Object> lit = lst.listIterator();
+    for (Object val : values) {
+      lit.add(val);
+    } // for
+    return values.length;
+  } // add(SimpleList<Object>, Object[])
+
+  /**
+   * Run one benchmark against one implementation, returning the mean
+   * operations per second and bytes allocated per operation.
+   */
+  static double[] measure(Supplier<SimpleList<Object>> factory,
+      Benchmark bench, Object[] values) {
+    int reps = Math.max(1, ELEMENTS_PER_ROUND / Math.max(1, values.length));
+    long probeBytes = probeBytes();
+    double opsPerSec = 0;
+    double bytesPerOp = 0;
+    for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+      long nanos = 0;
+      long bytes = 0;
+      long ops = 0;
+      for (int rep = 0; rep < reps; rep++) {
+        SimpleList<Object> lst = factory.get();
+        if (bench.prefill) {
+          add(lst, values);
+        } // if
+        long startBytes = allocatedBytes();
+        long start = System.nanoTime();
+        ops += bench.body.run(lst, values);
+        nanos += System.nanoTime() - start;
+        bytes += allocatedBytes() - startBytes - probeBytes;
+      } // for rep
+      if (round >= WARMUP_ROUNDS) {
+        opsPerSec += ops * 1e9 / Math.max(1, nanos);
+        bytesPerOp += (double) bytes / Math.max(1, ops);
+      } // if
+    } // for round
+    return new double[] {opsPerSec / MEASURED_ROUNDS,
+        bytesPerOp / MEASURED_ROUNDS};
+  } // measure(Supplier<SimpleList<Object>>, Benchmark, Object[])
+
+  /**
+   * The number of bytes allocated so far by the current thread.
+   */
+  static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  } // allocatedBytes()
+
+  /**
+   * The number of bytes allocated by reading the allocation counter
+   * itself, which we subtract from every measurement.
+   */
+  static long probeBytes() {
+    long probe = Long.MAX_VALUE;
+    for (int i = 0; i < 100; i++) {
+      long start = allocatedBytes();
+      probe = Math.min(probe, allocatedBytes() - start);
+    } // for
+    return probe;
+  } // probeBytes()
+
+  /**
+   * Build the values to store in the lists.  The values are created up
+   * front so that creating them is not counted as allocation by the
+   * benchmarks.
+   */
+  static Object[] values(String type, int size) {
+    Object[] values = new Object[size];
+    for (int i = 0; i < size; i++) {
+      if (type.equals("Integer")) {
+        values[i] = Integer.valueOf(i + 1024);
+      } else {
+        values[i] = "value" + i;
+      } // if/else
+    } // for
+    return values;
+  } // values(String, int)
+
+  static void printHeader(PrintWriter pen) {
+    pen.printf("%-18s %-16s %-8s %10s %16s %10s%n",
+        "Benchmark", "List", "Type", "Size", "ops/s", "B/op");
+  } // printHeader(PrintWriter)
+
+  static void printResult(PrintWriter pen, String bench, String impl,
+      String type, int size, double[] result) {
+    pen.printf("%-18s %-16s %-8s %10d %16.0f %10.2f%n",
+        bench, impl, type, size, result[0], result[1]);
+  } // printResult(PrintWriter, String, String, String, int, double[])
+
+  // +---------------+-----------------------------------------------
+  // | Inner classes |
+  // +---------------+
+
+  /**
+   * The body of a benchmark.  Returns the number of operations performed.
+   */
+  interface Body {
+    long run(SimpleList<Object> lst, Object[] values);
+  } // interface Body
+
+  /**
+   * A named benchmark.  If prefill is set, the list is filled with the
+   * values (outside of the measured region) before the body runs.
+   */
+  static class Benchmark {
+    String name;
+    boolean prefill;
+    Body body;
+
+    Benchmark(String name, boolean prefill, Body body) {
+      this.name = name;
+      this.prefill = prefill;
+      this.body = body;
+    } // Benchmark(String, boolean, Body)
+  } // class Benchmark
+
+  /**
+   * A named list implementation.
+   */
+  static class Impl {
+    String name;
+    Supplier<SimpleList<Object>> factory;
+
+    Impl(String name, Supplier<SimpleList<Object>> factory) {
+      this.name = name;
+      this.factory = factory;
+    } // Impl(String, Supplier<SimpleList<Object>>)
+  } // class Impl
+} // class SimpleListBench
@@ -0,0 +1,338 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Simple unrolled, circularly-linked, doubly-linked lists with a dummy
+ * node.
+ *
+ * Each node stores a small array of values, so walking the list touches
+ * one node per chunk rather than one node per value.  Nodes are split
+ * when they overflow and merged with a neighbor when they fall below
+ * half full.
+ *
+ * This list supports the Fail Fast policy.
+ */
+public class SimpleUCDLL<T> implements SimpleList<T> {
+  // +-----------+---------------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The number of values per node when none is given.
+   */
+  static final int DEFAULT_CHUNK_CAPACITY = 16;
+
+  // +--------+------------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The number of values in the list.
+   */
+  int size;
+
+  /**
+   * A dummy node precedes the front node and follows the back node.  It
+   * never holds any values.
+   */
+  ChunkNode<T> dummy;
+
+  /**
+   * To support fail fast, we keep track of the number of changes that have
+   * been made to this list.
+   */
+  long numChanges;
+
+  /**
+   * The most values a node may hold.
+   */
+  int chunkCapacity;
+
+  // +--------------+------------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create an empty list.
+   */
+  public SimpleUCDLL() {
+    this(DEFAULT_CHUNK_CAPACITY);
+  } // SimpleUCDLL()
+
+  /**
+   * Create an empty list whose nodes hold up to chunkCapacity values.
+   */
+  public SimpleUCDLL(int chunkCapacity) {
+    if (chunkCapacity < 2) {
+      throw new IllegalArgumentException("chunk capacity must be at least 2");
+    } // if
+    this.size = 0;
+    this.dummy = new ChunkNode<T>(0);
+    this.numChanges = 0;
+    this.chunkCapacity = chunkCapacity;
+
+    this.dummy.next = this.dummy;
+    this.dummy.prev = this.dummy;
+  } // SimpleUCDLL(int)
+
+  // +-----------+---------------------------------------------------------
+  // | Iterators |
+  // +-----------+
+
+  public Iterator<T> iterator() {
+    return listIterator();
+  } // iterator()
+
+  public ListIterator<T> listIterator() {
+    return new ListIterator<T>() {
+      // +--------+--------------------------------------------------------
+      // | Fields |
+      // +--------+
+
+      /**
+       * The position in the list of the next value to be returned.
+       * Included because ListIterators must provide nextIndex and
+       * prevIndex.
+       */
+      int pos = 0;
+
+      /**
+       * The cursor sits just before the value at index idx of node.  We
+       * keep idx < node.count, moving on to the following node when we
+       * reach the end of one, so the cursor is at the end of the list
+       * exactly when node is the dummy (and idx is 0).
+       */
+      ChunkNode<T> node = SimpleUCDLL.this.dummy.next;
+      int idx = 0;
+
+      /**
+       * The node and index of the value to be updated by remove or set.
+       * updateNode is null when there is no such value.
+       */
+      ChunkNode<T> updateNode = null;
+      int updateIdx = 0;
+
+      /**
+       * Whether the value to be updated precedes the cursor (that is,
+       * whether it was returned by next rather than previous).
+       */
+      boolean updateBefore = false;
+
+      /**
+       * The number of changes of the SimpleUCDLL at the time of this
+       * iterator object's creation, or when this iterator last mutated
+       * the SimpleUCDLL.
+       */
+      long numChanges = SimpleUCDLL.this.numChanges;
+
+      // +---------+-------------------------------------------------------
+      // | Methods |
+      // +---------+
+
+      public void add(T val) {
+        checkConcurrentModification();
+        ChunkNode<T> dummy = SimpleUCDLL.this.dummy;
+        int capacity = SimpleUCDLL.this.chunkCapacity;
+
+        if (this.node == dummy) {
+          // At the end of the list: append to the last node if it has room
+          ChunkNode<T> last = dummy.prev;
+          if (last == dummy || last.count == capacity) {
+            last = last.linkAfter(new ChunkNode<T>(capacity));
+          } // if
+          last.insert(last.count, val);
+        } else if (this.idx == 0 && this.node.prev != dummy
+            && this.node.prev.count < capacity) {
+          // At the start of a node: append to the previous node if it
+          // has room, so the cursor does not have to move
+          ChunkNode<T> before = this.node.prev;
+          before.insert(before.count, val);
+        } else {
+          // Normal case: insert into this node, splitting it if full
+          if (this.node.count == capacity) {
+            ChunkNode<T> upper = this.node.split();
+            if (this.idx > this.node.count) {
+              this.idx -= this.node.count;
+              this.node = upper;
+            } // if
+          } // if
+          this.node.insert(this.idx, val);
+          ++this.idx;
+          normalize();
+        } // if/else
+
+        // Note that we cannot update
+        this.updateNode = null;
+
+        ++SimpleUCDLL.this.size;
+        ++this.pos;
+        incrementNumChanges();
+      } // add(T)
+
+      public boolean hasNext() {
+        checkConcurrentModification();
+        return (this.pos < SimpleUCDLL.this.size);
+      } // hasNext()
+
+      public boolean hasPrevious() {
+        checkConcurrentModification();
+        return (this.pos > 0);
+      } // hasPrevious()
+
+      public T next() {
+        checkConcurrentModification();
+        if (this.pos >= SimpleUCDLL.this.size) {
+          throw new NoSuchElementException();
+        } // if
+        // Identify the value to update
+        ChunkNode<T> n = this.node;
+        int i = this.idx;
+        this.updateNode = n;
+        this.updateIdx = i;
+        this.updateBefore = true;
+        // Advance the cursor
+        if (++i == n.count) {
+          this.node = n.next;
+          this.idx = 0;
+        } else {
+          this.idx = i;
+        } // if/else
+        ++this.pos;
+        return n.get(i - 1);
+      } // next()
+
+      public int nextIndex() {
+        checkConcurrentModification();
+        return this.pos;
+      } // nextIndex()
+
+      public int previousIndex() {
+        checkConcurrentModification();
+        return this.pos - 1;
+      } // prevIndex
+
+      public T previous() {
+        checkConcurrentModification();
+        if (this.pos <= 0) {
+          throw new NoSuchElementException();
+        } // if
+        // Back up the cursor
+        ChunkNode<T> n = this.node;
+        int i = this.idx;
+        if (i == 0) {
+          n = n.prev;
+          i = n.count;
+          this.node = n;
+        } // if
+        this.idx = --i;
+        // Identify the value to update
+        this.updateNode = n;
+        this.updateIdx = i;
+        this.updateBefore = false;
+        --this.pos;
+        return n.get(i);
+      } // previous()
+
+      public void remove() {
+        // Sanity check
+        checkConcurrentModification();
+        if (this.updateNode == null) {
+          throw new IllegalStateException();
+        } // if
+        ChunkNode<T> dummy = SimpleUCDLL.this.dummy;
+        ChunkNode<T> n = this.updateNode;
+
+        // Do the real work.  Whichever way we reached the value, the
+        // cursor ends up just before the value that followed it.
+        n.removeAt(this.updateIdx);
+        this.node = n;
+        this.idx = this.updateIdx;
+        if (this.updateBefore) {
+          --this.pos;
+        } // if
+
+        // Merge underfull nodes
+        if (n.count == 0) {
+          this.node = n.next;
+          this.idx = 0;
+          n.remove();
+        } else if (n.count < SimpleUCDLL.this.chunkCapacity / 2) {
+          if (n.next != dummy && fits(n, n.next)) {
+            n.absorbNext();
+          } else if (n.prev != dummy && fits(n.prev, n)) {
+            this.node = n.prev;
+            this.idx += this.node.count;
+            this.node.absorbNext();
+          } // if/else
+        } // if/else
+        normalize();
+
+        --SimpleUCDLL.this.size;
+
+        // Note that no more updates are possible
+        this.updateNode = null;
+
+        incrementNumChanges();
+      } // remove()
+
+      public void set(T val) {
+        checkConcurrentModification();
+        // Sanity check
+        if (this.updateNode == null) {
+          throw new IllegalStateException();
+        } // if
+        // Do the real work
+        this.updateNode.values[this.updateIdx] = val;
+        // Note that no more updates are possible
+        this.updateNode = null;
+      } // set(T)
+
+      // +----------------+------------------------------------------------
+      // | Helper Methods |
+      // +----------------+
+
+      /**
+       * Move the cursor to the start of the following node if it has run
+       * off the end of its node.
+       */
+      void normalize() {
+        if (this.node != SimpleUCDLL.this.dummy
+            && this.idx == this.node.count) {
+          this.node = this.node.next;
+          this.idx = 0;
+        } // if
+      } // normalize()
+
+      /**
+       * Determine whether the values of two nodes fit in one node.
+       */
+      boolean fits(ChunkNode<T> first, ChunkNode<T> second) {
+        return first.count + second.count <= SimpleUCDLL.this.chunkCapacity;
+      } // fits(ChunkNode<T>, ChunkNode<T>)
+
+      /**
+       * Check if list has not been changed by other iterators. This
+       * implements the "fail fast" strategy.
+       *
+       * @throws ConcurrentModificationException if other iterators have
+       *   modified list.
+       */
+      void checkConcurrentModification() {
+        if (this.numChanges != SimpleUCDLL.this.numChanges) {
+          throw new ConcurrentModificationException();
+        } // if
+      } // checkConcurrentModification()
+
+      /**
+       * Increment `this.numChanges` and `SimpleUCDLL.this.numChanges` by 1.
+       */
+      void incrementNumChanges() {
+        this.numChanges++;
+        SimpleUCDLL.this.numChanges++;
+      } // incrementNumChanges()
+    };
+  } // listIterator()
+
+} // class SimpleUCDLL<T>
@@ -0,0 +1,354 @@
+import java.util.Random;
+
+/**
+ * An indexable skip list layered over the node chain of a circular,
+ * doubly-linked list with a dummy node.
+ *
+ * Each level of the index is a sparse, singly-linked list of entries that
+ * point at nodes of the chain, with each entry recording the number of
+ * positions (its "span") to the next entry on its level.  Every level
+ * starts with a head entry for the dummy, at index -1.  A node gets an
+ * entry on level l with probability p^(l+1), so the index has about
+ * p / (1 - p) entries per node and finds, inserts and removes by index
+ * in expected O(log n) time.
+ *
+ * The index does not change the chain; the list calls insert and remove
+ * after (or, for remove, before) changing the chain itself.  Each node
+ * of the chain links to its topmost entry, if it has one, so that we can
+ * also find the index of a node (see indexOf) in expected O(log n) time.
+ */
+public class SkipIndex<T> {
+  // +-----------+---------------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The most levels an index may have.
+   */
+  static final int MAX_LEVELS = 32;
+
+  // +--------+------------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The dummy node of the chain.
+   */
+  Node2<T> dummy;
+
+  /**
+   * The head entry of the top level.
+   */
+  Entry<T> head;
+
+  /**
+   * The number of levels.
+   */
+  int levels;
+
+  /**
+   * The probability that a node with an entry on one level also has an
+   * entry on the next level up.
+   */
+  double probability;
+
+  /**
+   * Chooses the heights of new entries.
+   */
+  Random random;
+
+  /**
+   * Scratch space for insert and remove: the entry preceding the target
+   * index on each level, and its index.
+   */
+  Entry<T>[] preds;
+  int[] predIndices;
+
+  // +--------------+------------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build an index over the size nodes following dummy.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public SkipIndex(Node2<T> dummy, int size, double probability) {
+    if (!(probability > 0 && probability < 1)) {
+      throw new IllegalArgumentException("probability must be in (0, 1)");
+    } // if
+    this.dummy = dummy;
+    this.probability = probability;
+    this.random = new Random();
+    this.preds = (Entry<T>[]) new Entry[MAX_LEVELS];
+    this.predIndices = new int[MAX_LEVELS];
+    this.head = new Entry<T>(dummy, null);
+    this.levels = 1;
+    build(size);
+  } // SkipIndex(Node2<T>, int, double)
+
+  // +---------+-----------------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Find the node at the given index, where 0 <= index < size.
+   */
+  Node2<T> node(int index) {
+    Entry<T> entry = this.head;
+    int pos = -1;
+    while (true) {
+      while (entry.right != null && pos + entry.span <= index) {
+        pos += entry.span;
+        entry = entry.right;
+      } // while
+      if (entry.down == null) {
+        break;
+      } // if
+      entry = entry.down;
+    } // while
+
+    // Finish the walk in the chain
+    Node2<T> node = entry.node;
+    for (; pos < index; pos++) {
+      node = node.next;
+    } // for
+    return node;
+  } // node(int)
+
+  /**
+   * Find the index of node, which must be in the chain, given the number
+   * of nodes in the chain.
+   *
+   * We count the positions from node to the end of the chain.  We walk
+   * along the chain to the first node with an entry (about 1/p steps),
+   * then along the index, always from the topmost entry of the node we
+   * have reached and dropping a level only at the end of one.  That is a
+   * search run backward, so it takes expected O(log n) steps.
+   */
+  int indexOf(Node2<T> node, int size) {
+    int distance = 0;
+    while (node != this.dummy && node.entry == null) {
+      node = node.next;
+      ++distance;
+    } // while
+    if (node != this.dummy) {
+      Entry<T> entry = node.entry;
+      while (entry.right != null || entry.down != null) {
+        if (entry.right != null) {
+          distance += entry.span;
+          entry = entry.right.node.entry;
+        } else {
+          entry = entry.down;
+        } // if/else
+      } // while
+      // Finish the walk in the chain
+      for (node = entry.node; node != this.dummy; node = node.next) {
+        ++distance;
+      } // for
+    } // if
+    return size - distance;
+  } // indexOf(Node2<T>, int)
+
+  /**
+   * Note that node has just been inserted into the chain at index.
+   */
+  void insert(int index, Node2<T> node) {
+    int height = randomHeight();
+    while (this.levels < height) {
+      this.head = new Entry<T>(this.dummy, this.head);
+      ++this.levels;
+    } // while
+    findPreds(index);
+
+    Entry<T> down = null;
+    for (int l = 0; l < this.levels; l++) {
+      Entry<T> pred = this.preds[l];
+      if (l < height) {
+        Entry<T> entry = new Entry<T>(node, down);
+        entry.right = pred.right;
+        if (pred.right != null) {
+          entry.span = this.predIndices[l] + pred.span + 1 - index;
+        } // if
+        pred.right = entry;
+        pred.span = index - this.predIndices[l];
+        down = entry;
+      } else if (pred.right != null) {
+        ++pred.span;
+      } // if/else
+    } // for
+    node.entry = down;
+  } // insert(int, Node2<T>)
+
+  /**
+   * Note that node, at index, is about to be removed from the chain.
+   */
+  void remove(int index, Node2<T> node) {
+    findPreds(index);
+    for (int l = 0; l < this.levels; l++) {
+      Entry<T> pred = this.preds[l];
+      Entry<T> right = pred.right;
+      if (right != null && right.node == node) {
+        pred.span += right.span - 1;
+        pred.right = right.right;
+      } else if (right != null) {
+        --pred.span;
+      } // if/else
+    } // for
+    node.entry = null;
+    dropEmptyLevels();
+  } // remove(int, Node2<T>)
+
+  /**
+   * Split off the entries for the nodes from index on into a new index
+   * over tailDummy, whose chain holds those nodes once the list has
+   * split the chain.  The entries go with their nodes, so we only cut
+   * each level once and give it a new head, in expected O(log n) time.
+   */
+  SkipIndex<T> split(int index, Node2<T> tailDummy) {
+    SkipIndex<T> tail = new SkipIndex<T>(tailDummy, 0, this.probability);
+    while (tail.levels < this.levels) {
+      tail.head = new Entry<T>(tailDummy, tail.head);
+      ++tail.levels;
+    } // while
+    findPreds(index);
+    Entry<T> head = tail.head;
+    for (int l = this.levels - 1; l >= 0; l--) {
+      Entry<T> pred = this.preds[l];
+      if (pred.right != null) {
+        // pred.right moves from index predIndices[l] + span to the
+        // tail, where the head is at -1
+        head.right = pred.right;
+        head.span = this.predIndices[l] + pred.span - index + 1;
+        pred.right = null;
+      } // if
+      head = head.down;
+    } // for
+    dropEmptyLevels();
+    tail.dropEmptyLevels();
+    return tail;
+  } // split(int, Node2<T>)
+
+  /**
+   * Throw the index away and build it again over the size nodes
+   * following the dummy.  Used after the chain changes wholesale.
+   */
+  void rebuild(int size) {
+    while (this.head.down != null) {
+      this.head = this.head.down;
+    } // while
+    this.head.right = null;
+    this.levels = 1;
+    build(size);
+  } // rebuild(int)
+
+  // +----------------+----------------------------------------------------
+  // | Helper Methods |
+  // +----------------+
+
+  /**
+   * Drop the empty levels from the top of the index.
+   */
+  void dropEmptyLevels() {
+    while (this.levels > 1 && this.head.right == null) {
+      this.head = this.head.down;
+      --this.levels;
+    } // while
+  } // dropEmptyLevels()
+
+  /**
+   * Add entries for the size nodes following the dummy to an index that
+   * has only its bottom head entry, and link each node to its topmost
+   * entry (or to none).
+   */
+  void build(int size) {
+    Entry<T>[] last = this.preds;
+    int[] lastIndices = this.predIndices;
+    last[0] = this.head;
+    lastIndices[0] = -1;
+
+    Node2<T> node = this.dummy.next;
+    for (int i = 0; i < size; i++, node = node.next) {
+      int height = randomHeight();
+      while (this.levels < height) {
+        this.head = new Entry<T>(this.dummy, this.head);
+        last[this.levels] = this.head;
+        lastIndices[this.levels] = -1;
+        ++this.levels;
+      } // while
+      Entry<T> down = null;
+      for (int l = 0; l < height; l++) {
+        Entry<T> entry = new Entry<T>(node, down);
+        last[l].right = entry;
+        last[l].span = i - lastIndices[l];
+        last[l] = entry;
+        lastIndices[l] = i;
+        down = entry;
+      } // for
+      node.entry = down;
+    } // for
+  } // build(int)
+
+  /**
+   * Fill in preds and predIndices with the last entry on each level whose
+   * index is less than the given index.
+   */
+  void findPreds(int index) {
+    Entry<T> entry = this.head;
+    int pos = -1;
+    for (int l = this.levels - 1; l >= 0; l--) {
+      while (entry.right != null && pos + entry.span < index) {
+        pos += entry.span;
+        entry = entry.right;
+      } // while
+      this.preds[l] = entry;
+      this.predIndices[l] = pos;
+      entry = entry.down;
+    } // for
+  } // findPreds(int)
+
+  /**
+   * Choose how many levels a new node has entries on.
+   */
+  int randomHeight() {
+    int height = 0;
+    while (height < MAX_LEVELS && this.random.nextDouble() < this.probability) {
+      ++height;
+    } // while
+    return height;
+  } // randomHeight()
+
+  // +---------------+-----------------------------------------------------
+  // | Inner Classes |
+  // +---------------+
+
+  /**
+   * An entry on one level of the index.
+   */
+  static class Entry<T> {
+    /**
+     * The node of the chain this entry stands for.
+     */
+    Node2<T> node;
+
+    /**
+     * The next entry on this level, or null.
+     */
+    Entry<T> right;
+
+    /**
+     * The entry for the same node on the level below, or null.
+     */
+    Entry<T> down;
+
+    /**
+     * The distance in positions to right.  Meaningless when right is
+     * null.
+     */
+    int span;
+
+    Entry(Node2<T> node, Entry<T> down) {
+      this.node = node;
+      this.down = down;
+    } // Entry(Node2<T>, Entry<T>)
+  } // class Entry<T>
+} // class SkipIndex<T>
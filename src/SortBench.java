@@ -0,0 +1,127 @@
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares SimpleCDLL's sort and parallelSort, which relink the nodes in
+ * place, with ArrayList.sort and LinkedList.sort (which copies the list
+ * into an array, sorts that, and copies it back).
+ *
+ * We use the harness in SimpleListBench, so the results are in the same
+ * units: operations (values sorted) per second and bytes per operation.
+ * The bytes are those allocated by the calling thread only, so they
+ * leave out anything the workers of a parallel sort allocate.
+ *
+ * Usage: java SortBench [size ...]
+ */
+public class SortBench {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The list sizes used when none are given on the command line.
+   */
+  static final int[] DEFAULT_SIZES = {100_000, 1_000_000};
+
+  /**
+   * How we order the values.
+   */
+  static final Comparator<Object> ORDER =
+      Comparator.comparingInt(Object::hashCode);
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    int[] sizes = DEFAULT_SIZES;
+    if (args.length > 0) {
+      sizes = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        sizes[i] = Integer.parseInt(args[i]);
+      } // for
+    } // if
+
+    List<SimpleListBench.Impl> impls = new ArrayList<SimpleListBench.Impl>();
+    impls.add(new SimpleListBench.Impl("SimpleCDLL",
+        () -> new SimpleCDLL<Object>()));
+    impls.add(new SimpleListBench.Impl("SimpleCDLL+index", () -> {
+      SimpleCDLL<Object> lst = new SimpleCDLL<Object>();
+      lst.enableIndex();
+      return lst;
+    }));
+    impls.add(new SimpleListBench.Impl("LinkedList",
+        () -> new JavaList<Object>(new LinkedList<Object>())));
+    impls.add(new SimpleListBench.Impl("ArrayList",
+        () -> new JavaList<Object>(new ArrayList<Object>())));
+
+    List<SimpleListBench.Benchmark> benches =
+        new ArrayList<SimpleListBench.Benchmark>();
+    benches.add(new SimpleListBench.Benchmark("sort", true, SortBench::sort));
+    benches.add(new SimpleListBench.Benchmark("parallelSort", true,
+        SortBench::parallelSort));
+
+    pen.printf("Common pool parallelism: %d%n",
+        ForkJoinPool.getCommonPoolParallelism());
+    SimpleListBench.printHeader(pen);
+    for (SimpleListBench.Benchmark bench : benches) {
+      for (int size : sizes) {
+        Object[] values = shuffled(size);
+        for (SimpleListBench.Impl impl : impls) {
+          if (bench.name.equals("parallelSort")
+              && !impl.name.startsWith("SimpleCDLL")) {
+            continue;
+          } // if
+          SimpleListBench.printResult(pen, bench.name, impl.name, "Integer",
+              size, SimpleListBench.measure(impl.factory, bench, values));
+        } // for impl
+      } // for size
+    } // for bench
+  } // main(String[])
+
+  // +------------+--------------------------------------------------
+  // | Benchmarks |
+  // +------------+
+
+  /**
+   * Sort the list with its own sort.
+   */
+  static long sort(SimpleList<Object> lst, Object[] values) {
+    if (lst instanceof SimpleCDLL) {
+      ((SimpleCDLL<Object>) lst).sort(ORDER);
+    } else {
+      ((JavaList<Object>) lst).list.sort(ORDER);
+    } // if/else
+    return values.length;
+  } // sort(SimpleList<Object>, Object[])
+
+  /**
+   * Sort a SimpleCDLL with parallelSort.
+   */
+  static long parallelSort(SimpleList<Object> lst, Object[] values) {
+    ((SimpleCDLL<Object>) lst).parallelSort(ORDER);
+    return values.length;
+  } // parallelSort(SimpleList<Object>, Object[])
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * The values from SimpleListBench, in a random order.
+   */
+  static Object[] shuffled(int size) {
+    Object[] values = SimpleListBench.values("Integer", size);
+    List<Object> list = new ArrayList<Object>();
+    Collections.addAll(list, values);
+    Collections.shuffle(list, new Random(SimpleListBench.SEED));
+    return list.toArray();
+  } // shuffled(int)
+} // class SortBench
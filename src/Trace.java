@@ -0,0 +1,306 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A trace of the operations performed on a list through its iterators,
+ * which can be saved, loaded, generated and replayed.
+ *
+ * Each operation has a code, the iterator it applies to (iterators are
+ * numbered in the order ITERATOR operations create them), and, for ADD
+ * and SET, a value.  Positions are not stored: they follow from
+ * replaying the operations in order.  Values are stored as ints; a
+ * recorded trace keeps the hash codes of the values used.  Operations
+ * before the MEASURE operation set the list up and are not timed.
+ *
+ * On disk, a trace is the magic number and the number of operations,
+ * followed by each operation as a byte for its code, a variable-length
+ * int for its iterator and, for ADD and SET, a variable-length int for
+ * its value.
+ */
+public class Trace {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The operation codes.
+   */
+  public static final byte ITERATOR = 0;
+  public static final byte ADD = 1;
+  public static final byte NEXT = 2;
+  public static final byte PREVIOUS = 3;
+  public static final byte REMOVE = 4;
+  public static final byte SET = 5;
+  public static final byte MEASURE = 6;
+
+  /**
+   * The names of the operations, indexed by code.
+   */
+  public static final String[] NAMES =
+      {"iterator", "add", "next", "previous", "remove", "set", "measure"};
+
+  /**
+   * The first four bytes of a trace file ("TRCE").
+   */
+  static final int MAGIC = 0x54524345;
+
+  /**
+   * Generated values are in [0, VALUES), so that each fits in three
+   * bytes on disk.
+   */
+  static final int VALUES = 1 << 21;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The number of operations.
+   */
+  int size;
+
+  /**
+   * The code, iterator and value of each operation.
+   */
+  byte[] ops;
+  int[] iterators;
+  int[] values;
+
+  /**
+   * The number of iterators created so far.
+   */
+  int numIterators;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Create an empty trace.
+   */
+  public Trace() {
+    this.size = 0;
+    this.ops = new byte[16];
+    this.iterators = new int[16];
+    this.values = new int[16];
+    this.numIterators = 0;
+  } // Trace()
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Add an operation to the end of the trace.
+   */
+  public void append(byte op, int iterator, int value) {
+    if (this.size == this.ops.length) {
+      int capacity = 2 * this.size;
+      this.ops = Arrays.copyOf(this.ops, capacity);
+      this.iterators = Arrays.copyOf(this.iterators, capacity);
+      this.values = Arrays.copyOf(this.values, capacity);
+    } // if
+    if (op == ITERATOR) {
+      ++this.numIterators;
+    } // if
+    this.ops[this.size] = op;
+    this.iterators[this.size] = iterator;
+    this.values[this.size] = value;
+    ++this.size;
+  } // append(byte, int, int)
+
+  /**
+   * Add an operation that creates a new iterator to the end of the
+   * trace.  Returns the number of the iterator.
+   */
+  public int appendIterator() {
+    int iterator = this.numIterators;
+    append(ITERATOR, iterator, 0);
+    return iterator;
+  } // appendIterator()
+
+  /**
+   * The number of operations.
+   */
+  public int size() {
+    return this.size;
+  } // size()
+
+  /**
+   * Save the trace to the file at path.
+   */
+  public void write(Path path) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeInt(this.size);
+      for (int i = 0; i < this.size; i++) {
+        out.writeByte(this.ops[i]);
+        writeVarInt(out, this.iterators[i]);
+        if (this.ops[i] == ADD || this.ops[i] == SET) {
+          writeVarInt(out, this.values[i]);
+        } // if
+      } // for
+    } // try
+  } // write(Path)
+
+  /**
+   * Load a trace from the file at path.
+   *
+   * @throws IOException if the file is not a trace.
+   */
+  public static Trace read(Path path) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("not a trace file: " + path);
+      } // if
+      Trace trace = new Trace();
+      for (int i = in.readInt(); i > 0; i--) {
+        byte op = in.readByte();
+        if (op < ITERATOR || op > MEASURE) {
+          throw new IOException("bad operation in " + path);
+        } // if
+        int iterator = readVarInt(in);
+        int value = 0;
+        if (op == ADD || op == SET) {
+          value = readVarInt(in);
+        } // if
+        trace.append(op, iterator, value);
+      } // for
+      return trace;
+    } // try
+  } // read(Path)
+
+  /**
+   * Generate a trace that fills a list with size values and then runs
+   * ops operations through one iterator, chosen at random with the
+   * given weights (indexed by operation code; only ADD, NEXT, PREVIOUS,
+   * REMOVE and SET are used).
+   *
+   * We track the cursor as we go, so the trace is valid for any list:
+   * when the chosen operation is not possible (e.g., next at the end of
+   * the list, or remove right after add), we choose a possible one
+   * instead.
+   */
+  public static Trace generate(Random random, int size, int ops,
+      double[] weights) {
+    double total = 0;
+    for (byte op = ADD; op <= SET; op++) {
+      total += weights[op];
+    } // for
+    if (!(total > 0)) {
+      throw new IllegalArgumentException("no operation has any weight");
+    } // if
+
+    Trace trace = new Trace();
+    int it = trace.appendIterator();
+    for (int i = 0; i < size; i++) {
+      trace.append(ADD, it, random.nextInt(VALUES));
+    } // for
+    it = trace.appendIterator();
+    trace.append(MEASURE, it, 0);
+
+    int pos = 0;
+    boolean canUpdate = false;
+    boolean lastNext = false;
+    for (int i = 0; i < ops; i++) {
+      byte op = choose(random, weights, total);
+      if ((op == REMOVE || op == SET) && !canUpdate) {
+        op = NEXT;
+      } // if
+      if (op == NEXT && pos == size) {
+        op = (size > 0) ? PREVIOUS : ADD;
+      } else if (op == PREVIOUS && pos == 0) {
+        op = (size > 0) ? NEXT : ADD;
+      } // if
+
+      switch (op) {
+        case ADD:
+          trace.append(ADD, it, random.nextInt(VALUES));
+          ++pos;
+          ++size;
+          canUpdate = false;
+          break;
+        case NEXT:
+          trace.append(NEXT, it, 0);
+          ++pos;
+          canUpdate = true;
+          lastNext = true;
+          break;
+        case PREVIOUS:
+          trace.append(PREVIOUS, it, 0);
+          --pos;
+          canUpdate = true;
+          lastNext = false;
+          break;
+        case REMOVE:
+          // Removing the value we just passed moves the cursor back
+          trace.append(REMOVE, it, 0);
+          if (lastNext) {
+            --pos;
+          } // if
+          --size;
+          canUpdate = false;
+          break;
+        default:
+          trace.append(SET, it, random.nextInt(VALUES));
+          canUpdate = false;
+          break;
+      } // switch
+    } // for
+    return trace;
+  } // generate(Random, int, int, double[])
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Choose one of ADD through SET at random with the given weights.
+   */
+  static byte choose(Random random, double[] weights, double total) {
+    double r = random.nextDouble() * total;
+    for (byte op = ADD; op < SET; op++) {
+      r -= weights[op];
+      if (r < 0) {
+        return op;
+      } // if
+    } // for
+    return SET;
+  } // choose(Random, double[], double)
+
+  /**
+   * Write a non-negative int in as few bytes as we can, seven bits at a
+   * time.  Negative ints take five bytes.
+   */
+  static void writeVarInt(DataOutputStream out, int val) throws IOException {
+    while ((val & ~0x7F) != 0) {
+      out.writeByte((val & 0x7F) | 0x80);
+      val >>>= 7;
+    } // while
+    out.writeByte(val);
+  } // writeVarInt(DataOutputStream, int)
+
+  /**
+   * Read an int written by writeVarInt.
+   */
+  static int readVarInt(DataInputStream in) throws IOException {
+    int val = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = in.readUnsignedByte();
+      val |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return val;
+      } // if
+    } // for
+    throw new IOException("bad variable-length int");
+  } // readVarInt(DataInputStream)
+} // class Trace
@@ -0,0 +1,142 @@
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * A hash index from the values of a circular, doubly-linked list with a
+ * dummy node to the nodes that hold them, so that we can find a value
+ * in expected constant time.
+ *
+ * Each value maps to its node or, while it occurs more than once, to
+ * the set of its nodes.  Values are compared with equals, as in a
+ * HashMap, so a value must not change its hash code while it is in the
+ * list.  Dead nodes (see SimpleCDLL.enableLazyRemoval) are not indexed.
+ *
+ * Like SkipIndex, the index does not change the chain: the list calls
+ * add after linking a node or giving it a value, and remove before
+ * unlinking it or taking its value away.
+ */
+public class ValueIndex<T> {
+  // +--------+------------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The dummy node of the chain.
+   */
+  Node2<T> dummy;
+
+  /**
+   * Maps each value to its Node2 or, if it occurs more than once, to a
+   * HashSet of its Node2s.  (Node2 does not override equals, so the set
+   * holds nodes by identity.)
+   */
+  HashMap<Object, Object> nodes;
+
+  // +--------------+------------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build an index over the live nodes following dummy.
+   */
+  public ValueIndex(Node2<T> dummy) {
+    this.dummy = dummy;
+    this.nodes = new HashMap<Object, Object>();
+    build();
+  } // ValueIndex(Node2<T>)
+
+  // +---------+-----------------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Find a node that holds val, or null if there is none.  If val occurs
+   * more than once, which of its nodes we find is unspecified.
+   */
+  @SuppressWarnings("unchecked")
+  Node2<T> find(Object val) {
+    Object entry = this.nodes.get(val);
+    if (entry == null || entry instanceof Node2) {
+      return (Node2<T>) entry;
+    } // if
+    return ((HashSet<Node2<T>>) entry).iterator().next();
+  } // find(Object)
+
+  /**
+   * Determine whether some node holds val.
+   */
+  boolean contains(Object val) {
+    return this.nodes.containsKey(val);
+  } // contains(Object)
+
+  /**
+   * Note that node has just been linked into the chain, or given a new
+   * value.
+   */
+  @SuppressWarnings("unchecked")
+  void add(Node2<T> node) {
+    Object entry = this.nodes.putIfAbsent(node.value, node);
+    if (entry == null) {
+      return;
+    } // if
+    if (entry instanceof Node2) {
+      HashSet<Node2<T>> set = new HashSet<Node2<T>>();
+      set.add((Node2<T>) entry);
+      set.add(node);
+      this.nodes.put(node.value, set);
+    } else {
+      ((HashSet<Node2<T>>) entry).add(node);
+    } // if/else
+  } // add(Node2<T>)
+
+  /**
+   * Note that node is about to be unlinked from the chain, or to lose
+   * its value.
+   */
+  @SuppressWarnings("unchecked")
+  void remove(Node2<T> node) {
+    Object entry = this.nodes.get(node.value);
+    if (entry == node) {
+      this.nodes.remove(node.value);
+    } else if (entry instanceof HashSet) {
+      HashSet<Node2<T>> set = (HashSet<Node2<T>>) entry;
+      set.remove(node);
+      // Go back to a bare node once the value occurs only once
+      if (set.size() == 1) {
+        this.nodes.put(node.value, set.iterator().next());
+      } // if
+    } // if/else
+  } // remove(Node2<T>)
+
+  /**
+   * Forget every node.
+   */
+  void clear() {
+    this.nodes.clear();
+  } // clear()
+
+  /**
+   * Throw the index away and build it again over the live nodes
+   * following the dummy.  Used after the values change wholesale.
+   */
+  void rebuild() {
+    this.nodes.clear();
+    build();
+  } // rebuild()
+
+  // +----------------+----------------------------------------------------
+  // | Helper Methods |
+  // +----------------+
+
+  /**
+   * Add every live node following the dummy to the index.
+   */
+  void build() {
+    for (Node2<T> node = this.dummy.next; node != this.dummy;
+        node = node.next) {
+      if (node.value != SimpleCDLL.DEAD) {
+        add(node);
+      } // if
+    } // for
+  } // build()
+} // class ValueIndex<T>
@@ -0,0 +1,144 @@
+import java.io.PrintWriter;
+import java.util.ListIterator;
+import java.util.Random;
+
+/**
+ * Compares search by value in a SimpleCDLL with and without the value
+ * index (see SimpleCDLL.enableValueIndex).
+ *
+ * The list holds the values 0 through size - 1 in random order.  The
+ * "contains" workload asks about random values in [0, 2 * size), so
+ * about half are present; "remove+add" removes a random value with
+ * remove(Object) and adds it back at the end; "listIteratorAt" finds a
+ * random value and replaces it with itself through the iterator; and
+ * "addLast" builds the list, to show what the index costs insertion.
+ * Each workload runs for DURATION_MS and we report operations per
+ * second.
+ *
+ * Usage: java ValueIndexBench [size ...]
+ */
+public class ValueIndexBench {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The list sizes we try by default.
+   */
+  static final int[] DEFAULT_SIZES = {1_000, 100_000};
+
+  /**
+   * How long each measurement runs, in milliseconds.
+   */
+  static final long DURATION_MS = 500;
+
+  /**
+   * The workloads.
+   */
+  static final String[] WORKLOADS =
+      {"addLast", "contains", "remove+add", "listIteratorAt"};
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    int[] sizes = DEFAULT_SIZES;
+    if (args.length > 0) {
+      sizes = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        sizes[i] = Integer.parseInt(args[i]);
+      } // for
+    } // if
+
+    pen.printf("%-16s %-24s %10s %16s%n", "Workload", "List", "Size",
+        "ops/s");
+    for (int size : sizes) {
+      for (String workload : WORKLOADS) {
+        for (boolean indexed : new boolean[] {false, true}) {
+          // Once to warm up, once to measure
+          run(workload, size, indexed);
+          pen.printf("%-16s %-24s %10d %16.0f%n", workload,
+              indexed ? "SimpleCDLL+valueIndex" : "SimpleCDLL", size,
+              run(workload, size, indexed));
+        } // for indexed
+      } // for workload
+    } // for size
+  } // main(String[])
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Run one workload for DURATION_MS and return operations per second.
+   */
+  static double run(String workload, int size, boolean indexed) {
+    Random random = new Random(SimpleListBench.SEED);
+    long ops = 0;
+    long sink = 0;
+    long start = System.nanoTime();
+    long end = start + DURATION_MS * 1_000_000;
+    if (workload.equals("addLast")) {
+      while (System.nanoTime() < end) {
+        ops += fill(size, indexed, random).size;
+      } // while
+      return ops * 1e9 / (System.nanoTime() - start);
+    } // if
+
+    SimpleCDLL<Integer> lst = fill(size, indexed, random);
+    start = System.nanoTime();
+    end = start + DURATION_MS * 1_000_000;
+    while (System.nanoTime() < end) {
+      // Check the clock only every so often
+      for (int i = 0; i < 64; i++) {
+        Integer val = random.nextInt(size);
+        switch (workload) {
+          case "contains":
+            if (lst.contains(random.nextInt(2 * size))) {
+              ++sink;
+            } // if
+            break;
+          case "remove+add":
+            lst.remove((Object) val);
+            lst.addLast(val);
+            break;
+          default:
+            ListIterator<Integer> lit = lst.listIteratorAt(val);
+            lit.set(lit.next());
+            break;
+        } // switch
+      } // for
+      ops += 64;
+    } // while
+    if (sink < 0) {
+      System.out.println(sink);
+    } // if
+    return ops * 1e9 / (System.nanoTime() - start);
+  } // run(String, int, boolean)
+
+  /**
+   * Make a list of 0 through size - 1 in random order.
+   */
+  static SimpleCDLL<Integer> fill(int size, boolean indexed, Random random) {
+    Integer[] values = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = i;
+    } // for
+    for (int i = size - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      Integer tmp = values[i];
+      values[i] = values[j];
+      values[j] = tmp;
+    } // for
+    SimpleCDLL<Integer> lst = new SimpleCDLL<Integer>();
+    if (indexed) {
+      lst.enableValueIndex();
+    } // if
+    for (Integer val : values) {
+      lst.addLast(val);
+    } // for
+    return lst;
+  } // fill(int, boolean, Random)
+} // class ValueIndexBench
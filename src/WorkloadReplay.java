@@ -0,0 +1,238 @@
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.ListIterator;
+import java.util.Random;
+
+/**
+ * Records, generates and replays list workloads (see Trace).
+ *
+ * Replaying a trace against each implementation in SimpleListBench
+ * reports throughput (measured operations per second, untimed) and the
+ * latency percentiles of individual operations (timed one by one, which
+ * adds the cost of reading the clock to each).  Traces without a MEASURE
+ * operation, such as recorded ones, are measured from the start.  Operations that throw,
+ * such as those of failFastExpt, are counted as errors and the replay
+ * goes on.
+ *
+ * Usage:
+ *   java WorkloadReplay generate FILE [size [ops [mix]]]
+ *   java WorkloadReplay record FILE [experiment]
+ *   java WorkloadReplay replay FILE [implementation-regex]
+ *
+ * where a mix gives the relative weights of the operations, e.g.
+ * "add=1,next=4,previous=2,remove=1,set=1" (the default), and an
+ * experiment is 1 through 7 or "failfast" from SimpleListExpt, recorded
+ * against a SimpleCDLL.
+ */
+public class WorkloadReplay {
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The default operation mix.
+   */
+  static final String DEFAULT_MIX = "add=1,next=4,previous=2,remove=1,set=1";
+
+  /**
+   * The number of unmeasured replays before we measure.
+   */
+  static final int WARMUP_ROUNDS = 5;
+
+  /**
+   * The number of replays measured for throughput, and again for
+   * latency.
+   */
+  static final int MEASURED_ROUNDS = 5;
+
+  // +------+--------------------------------------------------------
+  // | Main |
+  // +------+
+
+  public static void main(String[] args) throws Exception {
+    PrintWriter pen = new PrintWriter(System.out, true);
+    if (args.length < 2) {
+      pen.println("Usage: java WorkloadReplay generate|record|replay FILE ...");
+      return;
+    } // if
+    Path path = Paths.get(args[1]);
+
+    if (args[0].equals("generate")) {
+      int size = (args.length > 2) ? Integer.parseInt(args[2]) : 10_000;
+      int ops = (args.length > 3) ? Integer.parseInt(args[3]) : 1_000_000;
+      double[] weights = mix((args.length > 4) ? args[4] : DEFAULT_MIX);
+      Trace trace = Trace.generate(new Random(SimpleListBench.SEED), size,
+          ops, weights);
+      trace.write(path);
+      pen.printf("Wrote %d operations to %s%n", trace.size(), path);
+    } else if (args[0].equals("record")) {
+      Trace trace = new Trace();
+      record((args.length > 2) ? args[2] : "1",
+          new RecordingList<String>(new SimpleCDLL<String>(), trace));
+      trace.write(path);
+      pen.printf("Wrote %d operations to %s%n", trace.size(), path);
+    } else if (args[0].equals("replay")) {
+      Trace trace = Trace.read(path);
+      String regex = (args.length > 2) ? args[2] : ".*";
+      pen.printf("%-18s %14s %8s %8s %8s %8s %10s %8s%n", "List", "ops/s",
+          "p50 ns", "p90 ns", "p99 ns", "p99.9 ns", "max ns", "errors");
+      for (SimpleListBench.Impl impl : SimpleListBench.IMPLS) {
+        if (impl.name.matches(regex)) {
+          report(pen, impl, trace);
+        } // if
+      } // for
+    } else {
+      pen.println("Unknown command: " + args[0]);
+    } // if/else
+  } // main(String[])
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Parse an operation mix into weights indexed by operation code.
+   */
+  static double[] mix(String spec) {
+    double[] weights = new double[Trace.NAMES.length];
+    for (String part : spec.split(",")) {
+      String[] pair = part.split("=");
+      int op = Arrays.asList(Trace.NAMES).indexOf(pair[0].trim());
+      if (op < Trace.ADD || op > Trace.SET || pair.length != 2) {
+        throw new IllegalArgumentException("bad mix entry: " + part);
+      } // if
+      weights[op] = Double.parseDouble(pair[1]);
+    } // for
+    return weights;
+  } // mix(String)
+
+  /**
+   * Run one experiment from SimpleListExpt on lst, discarding what it
+   * prints.
+   */
+  static void record(String experiment, SimpleList<String> lst)
+      throws Exception {
+    PrintWriter pen = new PrintWriter(OutputStream.nullOutputStream());
+    switch (experiment) {
+      case "1":
+        SimpleListExpt.expt1(pen, lst);
+        break;
+      case "2":
+        SimpleListExpt.expt2(pen, lst);
+        break;
+      case "3":
+        SimpleListExpt.expt3(pen, lst);
+        break;
+      case "4":
+        SimpleListExpt.expt4(pen, lst, 3);
+        break;
+      case "5":
+        SimpleListExpt.expt5(pen, lst);
+        break;
+      case "6":
+        SimpleListExpt.expt6(pen, lst);
+        break;
+      case "7":
+        SimpleListExpt.expt7(pen, lst);
+        break;
+      case "failfast":
+        SimpleListExpt.failFastExpt(pen, lst);
+        break;
+      default:
+        throw new IllegalArgumentException("no experiment " + experiment);
+    } // switch
+  } // record(String, SimpleList<String>)
+
+  /**
+   * Replay the trace against one implementation and print a row.
+   */
+  static void report(PrintWriter pen, SimpleListBench.Impl impl, Trace trace) {
+    Object[] values = new Object[trace.size];
+    for (int i = 0; i < trace.size; i++) {
+      values[i] = Integer.valueOf(trace.values[i]);
+    } // for
+
+    double opsPerSec = 0;
+    long errors = 0;
+    for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+      long[] result = replay(trace, impl.factory.get(), values, null);
+      if (round >= WARMUP_ROUNDS) {
+        opsPerSec += result[0] * 1e9 / Math.max(1, result[1]);
+        errors = result[2];
+      } // if
+    } // for
+    LatencyHistogram latencies = new LatencyHistogram();
+    for (int round = 0; round < MEASURED_ROUNDS; round++) {
+      replay(trace, impl.factory.get(), values, latencies);
+    } // for
+    pen.printf("%-18s %14.0f %8d %8d %8d %8d %10d %8d%n", impl.name,
+        opsPerSec / MEASURED_ROUNDS, latencies.percentile(0.5),
+        latencies.percentile(0.9), latencies.percentile(0.99),
+        latencies.percentile(0.999), latencies.max(), errors);
+  } // report(PrintWriter, SimpleListBench.Impl, Trace)
+
+  /**
+   * Replay the trace against lst.  If latencies is not null, time each
+   * measured operation into it.  Returns the number of measured
+   * operations, the nanoseconds they took, and the number of operations
+   * that threw.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static long[] replay(Trace trace, SimpleList<Object> lst, Object[] values,
+      LatencyHistogram latencies) {
+    ListIterator<Object>[] its =
+        (ListIterator<Object>[]) new ListIterator[trace.numIterators];
+    long measured = 0;
+    long errors = 0;
+    long start = System.nanoTime();
+    // A trace without a MEASURE operation is measured from the start
+    boolean measuring = true;
+    for (int i = 0; i < trace.size && measuring; i++) {
+      measuring = trace.ops[i] != Trace.MEASURE;
+    } // for
+    for (int i = 0; i < trace.size; i++) {
+      byte op = trace.ops[i];
+      if (op == Trace.MEASURE) {
+        measuring = true;
+        start = System.nanoTime();
+        continue;
+      } // if
+      long opStart = (measuring && latencies != null) ? System.nanoTime() : 0;
+      try {
+        ListIterator<Object> lit = its[trace.iterators[i]];
+        switch (op) {
+          case Trace.ITERATOR:
+            its[trace.iterators[i]] = lst.listIterator();
+            break;
+          case Trace.ADD:
+            lit.add(values[i]);
+            break;
+          case Trace.NEXT:
+            lit.next();
+            break;
+          case Trace.PREVIOUS:
+            lit.previous();
+            break;
+          case Trace.REMOVE:
+            lit.remove();
+            break;
+          default:
+            lit.set(values[i]);
+            break;
+        } // switch
+      } catch (RuntimeException e) {
+        ++errors;
+      } // try/catch
+      if (measuring) {
+        ++measured;
+        if (latencies != null) {
+          latencies.recordSince(opStart);
+        } // if
+      } // if
+    } // for
+    return new long[] {measured, System.nanoTime() - start, errors};
+  } // replay(Trace, SimpleList<Object>, Object[], LatencyHistogram)
+} // class WorkloadReplay